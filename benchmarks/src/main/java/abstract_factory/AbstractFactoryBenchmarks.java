@@ -0,0 +1,53 @@
+package abstract_factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//factory lookup for a known and an unknown key, throwing and non-throwing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbstractFactoryBenchmarks {
+
+    private final AbstractGUIFactory factory = new AbstractGUIFactory();
+    //not compile-time constants, so the lookups cannot be folded
+    private String knownKey = "Linux";
+    private String unknownKey = "error";
+
+    @Benchmark
+    public IGUIFactory createFactoryHit() throws Exception {
+        return factory.createFactory(knownKey);
+    }
+
+    @Benchmark
+    public Object createFactoryMiss() {
+        try {
+            return factory.createFactory(unknownKey);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Optional<IGUIFactory> findFactoryHit() {
+        return factory.findFactory(knownKey);
+    }
+
+    @Benchmark
+    public Optional<IGUIFactory> findFactoryMiss() {
+        return factory.findFactory(unknownKey);
+    }
+}
@@ -0,0 +1,99 @@
+package abstract_factory;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//time-to-first-product and number of classes loaded, eager against lazy family loading.
+//Every invocation gets a fresh class loader over the pattern code, so each one starts with none of the
+//pattern classes loaded, as in a new JVM; hence single shots and no warm-up
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 20)
+@Fork(3)
+public class ProviderStartupBenchmarks {
+
+    @Param({"true", "false"})
+    public boolean eager;
+
+    private URLClassLoader loader;
+    private Method firstProduct;
+
+    //classes loaded per first product, reported next to the time
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ClassesLoaded {
+
+        private static final ClassLoadingMXBean CLASS_LOADING = ManagementFactory.getClassLoadingMXBean();
+
+        public long classes;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() throws ReflectiveOperationException {
+        //this jar or directory for FirstProduct and, when not shaded into one jar, the lessons' classes
+        Set<URL> code = new LinkedHashSet<>();
+        code.add(FirstProduct.class.getProtectionDomain().getCodeSource().getLocation());
+        code.add(AbstractGUIFactory.class.getProtectionDomain().getCodeSource().getLocation());
+        loader = new URLClassLoader(code.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+        firstProduct = loader.loadClass(FirstProduct.class.getName()).getDeclaredMethod("firstProduct", boolean.class);
+        firstProduct.setAccessible(true);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        loader.close();
+    }
+
+    @Benchmark
+    public Object firstProduct(ClassesLoaded loaded) throws ReflectiveOperationException {
+        long before = ClassesLoaded.CLASS_LOADING.getTotalLoadedClassCount();
+        Object product = firstProduct.invoke(null, eager);
+        loaded.classes += ClassesLoaded.CLASS_LOADING.getTotalLoadedClassCount() - before;
+        return product;
+    }
+
+    //loaded again inside each fresh class loader; refers only to the pattern classes
+    static final class FirstProduct {
+
+        private static IButton firstProduct(boolean eager) {
+            if (eager) {
+                //what loading every family up front costs: all factories and all of their products
+                for (GUIFamily family : GUIFamily.values()) {
+                    family.factory().createButton();
+                    family.factory().createLogo();
+                }
+                GUIFactoryProviders providers = GUIFactoryProviders.shared();
+                providers.initializeAll();
+                for (String family : providers.families()) {
+                    providers.find(family).get().createButton();
+                    providers.find(family).get().createLogo();
+                }
+            }
+            return new AbstractGUIFactory().findFactory("Windows").get().createButton();
+        }
+    }
+}
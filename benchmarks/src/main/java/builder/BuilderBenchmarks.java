@@ -0,0 +1,42 @@
+package builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+//building one order with each builder; the GC profiler's gc.alloc.rate.norm shows the bytes per order
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmarks {
+
+    private final Date date = new Date();
+    private final long timestamp = date.getTime();
+
+    @Benchmark
+    public OrderImmutable orderImmutable() {
+        return OrderImmutable.getBuilder().setName("Order").setDate(date).build();
+    }
+
+    @Benchmark
+    public OrderMutable orderMutableBuilder() {
+        return new OrderMutableBuilder().setName("Order").setDate(date).build();
+    }
+
+    @Benchmark
+    public TimestampedOrder timestampedOrder() {
+        return TimestampedOrder.threadLocalBuilder().setName("Order").setTimestamp(timestamp).build();
+    }
+}
@@ -0,0 +1,86 @@
+package builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//building and scanning "size" orders: one OrderImmutable per order against the columnar OrderBatch
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBatchBenchmarks {
+
+    private static final int DISTINCT_NAMES = 1_000;
+
+    @Param({"100000"})
+    public int size;
+
+    private String[] names;
+    private long start;
+    private List<OrderImmutable> objects;
+    private OrderBatch batch;
+
+    @Setup
+    public void setUp() {
+        names = new String[DISTINCT_NAMES];
+        for (int i = 0; i < DISTINCT_NAMES; i++) {
+            names[i] = "Order " + i;
+        }
+        start = System.currentTimeMillis();
+        objects = buildObjects();
+        batch = buildBatch();
+    }
+
+    @Benchmark
+    public List<OrderImmutable> buildObjects() {
+        List<OrderImmutable> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(OrderImmutable.getBuilder().setName(names[i % DISTINCT_NAMES]).setDate(new Date(start + i)).build());
+        }
+        return orders;
+    }
+
+    @Benchmark
+    public OrderBatch buildBatch() {
+        OrderBatch.Builder builder = OrderBatch.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(names[i % DISTINCT_NAMES], start + i);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public int scanObjects() {
+        long from = start + size / 4;
+        long to = start + size / 2;
+        int count = 0;
+        for (OrderImmutable order : objects) {
+            long timestamp = order.getDate().getTime();
+            if (timestamp >= from && timestamp <= to) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int scanBatch() {
+        return batch.countBetween(start + size / 4, start + size / 2);
+    }
+}
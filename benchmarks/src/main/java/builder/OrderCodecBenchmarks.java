@@ -0,0 +1,65 @@
+package builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+//one order encoded and decoded again: OrderCodec on a direct buffer, in-place reading through
+//OrderFlyweight, and Java serialization of the same fields
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCodecBenchmarks {
+
+    private final OrderImmutable order = OrderImmutable.getBuilder().setName("Order 42").setDate(new Date()).build();
+    private final OrderCodec codec = new OrderCodec();
+    private final OrderFlyweight flyweight = new OrderFlyweight();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+
+    @Benchmark
+    public OrderImmutable codecRoundTrip() {
+        buffer.clear();
+        codec.encode(order, buffer);
+        buffer.flip();
+        return codec.decodeImmutable(buffer);
+    }
+
+    @Benchmark
+    public long codecEncodeFlyweightRead() {
+        buffer.clear();
+        codec.encode(order, buffer);
+        return flyweight.wrap(buffer, 0).getTimestamp();
+    }
+
+    @Benchmark
+    public OrderImmutable serializationRoundTrip() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(order.getName());
+            out.writeObject(order.getDate());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            String name = (String) in.readObject();
+            Date date = (Date) in.readObject();
+            return OrderImmutable.getBuilder().setName(name).setDate(date).build();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//single create() calls, with the default registry's shared flyweight and with a registry that makes a new
+//product each time, and the bulk paths (per product): fill(),
+//createAll() over mixed flags, and stream(count) sequential and parallel. The streams filter before
+//counting, so every product is really made instead of the count coming from the SIZED shortcut
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmarks {
+
+    private static final int BATCH = 1024;
+    //large enough for a parallel stream to split across the common pool
+    private static final int STREAM = 1 << 16;
+
+    private final Factory chocoFactory = new ChocoFactory(1);
+    private final Factory allocatingFactory = new ChocoFactory(1, new ChocolateRegistry().register(1, DarkChocolate::new));
+    private final Chocolate[] batch = new Chocolate[BATCH];
+    private final int[] mixedFlags = new int[BATCH];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH; i++) {
+            mixedFlags[i] = random.nextInt(2);
+        }
+    }
+
+    @Benchmark
+    public Chocolate chocoFactoryCreate() {
+        return chocoFactory.create();
+    }
+
+    @Benchmark
+    public Chocolate allocatingFactoryCreate() {
+        return allocatingFactory.create();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Chocolate[] chocoFactoryFill() {
+        chocoFactory.fill(batch);
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Chocolate[] chocoFactoryCreateAllMixed() {
+        ChocoFactory.createAll(mixedFlags, batch);
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAM)
+    public long chocoFactoryStream() {
+        return chocoFactory.stream(STREAM).filter(c -> c instanceof DarkChocolate).count();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAM)
+    public long chocoFactoryParallelStream() {
+        return chocoFactory.stream(STREAM).parallel().filter(c -> c instanceof DarkChocolate).count();
+    }
+}
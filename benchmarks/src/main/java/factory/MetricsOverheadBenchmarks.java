@@ -0,0 +1,60 @@
+package factory;
+
+import metrics.PatternMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//cost of the PatternMetrics hooks on ChocoFactory.create(): with metrics off the instrumented call should
+//match the uninstrumented constructor; with metrics on it pays two nanoTime() calls and a histogram update.
+//No JFR recording runs here, so the events stop at shouldCommit()
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmarks {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private final Factory chocoFactory = new ChocoFactory(1);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (metrics) {
+            PatternMetrics.enable();
+        } else {
+            PatternMetrics.disable();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PatternMetrics.disable();
+        PatternMetrics.reset();
+    }
+
+    @Benchmark
+    public Chocolate uninstrumented() {
+        return new DarkChocolate();
+    }
+
+    @Benchmark
+    public Chocolate chocoFactoryCreate() {
+        return chocoFactory.create();
+    }
+}
@@ -0,0 +1,72 @@
+package factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import output.AsyncBatchSink;
+import output.Sink;
+import output.Sinks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+//printPrice() from several threads at once, for each kind of sink.
+//System.out is replaced by an auto-flushing stream that discards its bytes, so the numbers show the cost
+//of locking and per-line flushing rather than the speed of the terminal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class SinkContentionBenchmarks {
+
+    @Param({"stdout", "async", "noop"})
+    public String sink;
+
+    private final Chocolate chocolate = new WhiteChocolate();
+    private PrintStream console;
+    private AsyncBatchSink async;
+    private Sink previous;
+
+    @Setup
+    public void setUp() {
+        console = System.out;
+        PrintStream discarding = new PrintStream(OutputStream.nullOutputStream(), true);
+        System.setOut(discarding);
+        Sink installed;
+        switch (sink) {
+            case "stdout": installed = Sinks.stdout(); break;
+            case "async": installed = async = new AsyncBatchSink(discarding, 64 * 1024); break;
+            case "noop": installed = Sinks.noop(); break;
+            default: throw new IllegalArgumentException("Unknown sink: " + sink);
+        }
+        previous = Sinks.install(installed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Sinks.install(previous);
+        if (async != null) {
+            async.close();
+        }
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void printPrice() {
+        chocolate.printPrice();
+    }
+}
@@ -0,0 +1,70 @@
+package observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//notification cost by observer count, for pull-model (Observer) and push-model (IntObserver) observers
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObserverBenchmarks {
+
+    @Param({"1", "10", "100", "1000"})
+    public int observerCount;
+
+    private ConcreteSubject pullSubject;
+    private ConcreteSubject pushSubject;
+    private ConcurrentSubject concurrentSubject;
+    private long sum;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        pullSubject = new ConcreteSubject();
+        pushSubject = new ConcreteSubject();
+        concurrentSubject = new ConcurrentSubject();
+        for (int i = 0; i < observerCount; i++) {
+            pullSubject.attach(() -> sum += pullSubject.getValue());
+            pushSubject.attach((int oldValue, int newValue) -> sum += newValue);
+            concurrentSubject.attach(() -> sum += concurrentSubject.getValue());
+        }
+    }
+
+    @Benchmark
+    public long notifyObserver() {
+        pullSubject.notifyObserver();
+        return sum;
+    }
+
+    @Benchmark
+    public long setValuePull() {
+        pullSubject.setValue(value++);
+        return sum;
+    }
+
+    @Benchmark
+    public long setValuePush() {
+        pushSubject.setValue(value++);
+        return sum;
+    }
+
+    @Benchmark
+    public long setValueConcurrent() {
+        concurrentSubject.setValue(value++);
+        return sum;
+    }
+}
@@ -0,0 +1,69 @@
+package observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//cost per observer update of a ParallelSubject fan-out (Completion.AWAIT) by pool size, with observers
+//that do some CPU work each, so the numbers show how the fan-out scales with cores. Sizes above the
+//machine's core count only add scheduling overhead
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSubjectBenchmarks {
+
+    private static final int OBSERVERS = 20_000;
+    private static final int WORK = 2_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private ParallelSubject subject;
+    private final LongAdder checksum = new LongAdder();
+    private int value;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        subject = new ParallelSubject(pool, 256, ParallelSubject.Completion.AWAIT);
+        for (int i = 0; i < OBSERVERS; i++) {
+            subject.attach(() -> {
+                long hash = subject.getValue();
+                for (int k = 0; k < WORK; k++) {
+                    hash = hash * 31 + k;
+                }
+                checksum.add(hash & 1);
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVERS)
+    public long setValue() {
+        subject.setValue(value++);
+        return checksum.sum();
+    }
+}
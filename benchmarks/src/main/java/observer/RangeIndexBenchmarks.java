@@ -0,0 +1,72 @@
+package observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//one setValue against observers that each watch a narrow value range: registered in the subject's
+//RangeIndex, against plain observers that check the range themselves on every change
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeIndexBenchmarks {
+
+    private static final int VALUES = 1_000_000;
+    private static final int RANGE_WIDTH = 100;
+    private static final int EVENTS = 1 << 14;
+
+    @Param({"1000", "100000"})
+    public int observerCount;
+
+    private ConcreteSubject indexed;
+    private ConcreteSubject scanned;
+    private final int[] values = new int[EVENTS];
+    private long hits;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        indexed = new ConcreteSubject();
+        scanned = new ConcreteSubject();
+        Random random = new Random(42);
+        for (int i = 0; i < observerCount; i++) {
+            final int from = random.nextInt(VALUES);
+            final int to = from + random.nextInt(RANGE_WIDTH);
+            indexed.attach((int oldValue, int newValue) -> hits++, from, to);
+            scanned.attach((int oldValue, int newValue) -> {
+                if (newValue >= from && newValue <= to) {
+                    hits++;
+                }
+            });
+        }
+        for (int i = 0; i < EVENTS; i++) {
+            values[i] = random.nextInt(VALUES);
+        }
+    }
+
+    @Benchmark
+    public long indexed() {
+        indexed.setValue(values[next++ & (EVENTS - 1)]);
+        return hits;
+    }
+
+    @Benchmark
+    public long fullScan() {
+        scanned.setValue(values[next++ & (EVENTS - 1)]);
+        return hits;
+    }
+}
@@ -0,0 +1,58 @@
+package observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//setValue on a subject whose only observer is a RingBufferDispatcher with two consumers, per wait strategy.
+//Once the ring is full the producer waits for the slower consumer, so in steady state this is the
+//dispatcher's end-to-end throughput rather than the cost of a publish alone. BUSY_SPIN needs a free core
+//for each consumer thread plus the producer to be meaningful
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferDispatcherBenchmarks {
+
+    //WaitStrategy constant names: the enum is package-private, which JMH's generated code cannot see
+    @Param({"BUSY_SPIN", "YIELD", "PARK"})
+    public String waitStrategy;
+
+    private ConcreteSubject subject;
+    private RingBufferDispatcher dispatcher;
+    private final long[] sums = new long[2];
+    private int value;
+
+    @Setup
+    public void setUp() {
+        subject = new ConcreteSubject();
+        dispatcher = new RingBufferDispatcher(1 << 16, WaitStrategy.valueOf(waitStrategy));
+        dispatcher.attach((int oldValue, int newValue) -> sums[0] += newValue);
+        dispatcher.attach((int oldValue, int newValue) -> sums[1] += newValue - oldValue);
+        subject.attach(dispatcher);
+        dispatcher.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Benchmark
+    public void setValue() {
+        subject.setValue(value++);
+    }
+}
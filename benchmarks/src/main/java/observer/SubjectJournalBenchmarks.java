@@ -0,0 +1,103 @@
+package observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//write and replay cost of the SubjectJournal. append is timed as one batch of EVENTS records (rolling into
+//SEGMENT-sized segments) into a fresh journal per iteration, so the files stay bounded however fast the
+//appends are; the score is per batch. replay reads a journal of EVENTS records written once, per record
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class SubjectJournalBenchmarks {
+
+    private static final int EVENTS = 1 << 20;
+    private static final int SEGMENT = 1 << 16;
+
+    @State(Scope.Thread)
+    public static class Appending {
+
+        private Path directory;
+        private SubjectJournal journal;
+        private int value;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("subject-journal");
+            journal = new SubjectJournal(directory, SEGMENT);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            journal.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Written {
+
+        private Path directory;
+        private SubjectJournal journal;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("subject-journal");
+            journal = new SubjectJournal(directory, SEGMENT);
+            for (int i = 0; i < EVENTS; i++) {
+                journal.append(i);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            journal.close();
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = EVENTS)
+    @Measurement(iterations = 5, batchSize = EVENTS)
+    public long append(Appending state) {
+        return state.journal.append(state.value++);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @OperationsPerInvocation(EVENTS)
+    public long replay(Written state) throws IOException {
+        final long[] checksum = new long[1];
+        state.journal.replay(0, (int oldValue, int newValue) -> checksum[0] += newValue);
+        return checksum[0];
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
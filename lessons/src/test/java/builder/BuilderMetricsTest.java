@@ -0,0 +1,46 @@
+package builder;
+
+import metrics.PatternMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BuilderMetricsTest {
+
+    //every build() is counted; only TimestampedOrder.Builder does work of its own to time, and the
+    //caller's time between creating the builder and build() is not part of it
+    @Test
+    void buildsAreCountedAndOnlyTheBuildersWorkIsTimed() throws InterruptedException {
+        PatternMetrics.enable();
+        try {
+            PatternMetrics.reset();
+            OrderMutableBuilder mutable = new OrderMutableBuilder().setName("Order").setDate(new Date());
+            OrderImmutable.OrderImmutableBuilder immutable = OrderImmutable.getBuilder().setName("Order");
+            TimestampedOrder.Builder timestamped = TimestampedOrder.threadLocalBuilder().setName("Order");
+            Thread.sleep(5);
+            mutable.build();
+            immutable.build();
+            timestamped.build();
+
+            assertEquals(3, PatternMetrics.orderBuilds());
+            assertEquals(1, PatternMetrics.ORDER_BUILD_LATENCY.count());
+            long slowest = PatternMetrics.ORDER_BUILD_LATENCY.percentile(1.0);
+            assertTrue(slowest < 5_000_000, () -> "build sample " + slowest + " ns includes the caller's sleep");
+        } finally {
+            PatternMetrics.disable();
+            PatternMetrics.reset();
+        }
+    }
+
+    @Test
+    void nothingIsCountedWhileDisabled() {
+        PatternMetrics.reset();
+        new OrderMutableBuilder().setName("Order").build();
+        TimestampedOrder.builder().setName("Order").build();
+        assertEquals(0, PatternMetrics.orderBuilds());
+        assertEquals(0, PatternMetrics.ORDER_BUILD_LATENCY.count());
+    }
+}
@@ -0,0 +1,81 @@
+package builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderBatchTest {
+
+    //grows past the initial capacity and keeps every row in insertion order
+    @Test
+    void keepsEveryOrderInOrder() {
+        OrderBatch.Builder builder = OrderBatch.builder(2);
+        for (int i = 0; i < 100; i++) {
+            builder.add("Order " + (i % 7), 1_000L + i);
+        }
+        OrderBatch batch = builder.build();
+
+        assertEquals(100, batch.size());
+        assertEquals(7, batch.dictionarySize());
+        OrderBatch.View view = batch.view();
+        for (int i = 0; i < 100; i++) {
+            assertSame(view, view.moveTo(i));
+            assertEquals(i, view.index());
+            assertEquals("Order " + (i % 7), view.getName());
+            assertEquals(1_000L + i, view.getTimestamp());
+            assertEquals(new Date(1_000L + i), view.getDate());
+        }
+    }
+
+    //an exactly full builder hands over its arrays without a trim
+    @Test
+    void buildsAnExactlyFullBuilder() {
+        OrderBatch.Builder builder = OrderBatch.builder(16);
+        for (int i = 0; i < 16; i++) {
+            builder.add("Order", new Date(i));
+        }
+        OrderBatch batch = builder.build();
+        assertEquals(16, batch.size());
+        assertEquals(15L, batch.view().moveTo(15).getTimestamp());
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.view().moveTo(16));
+    }
+
+    @Test
+    void countsByName() {
+        OrderBatch batch = OrderBatch.builder(4)
+                .add("a", 1L).add("b", 2L).add("a", 3L).add(null, 4L).add("a", 5L)
+                .build();
+
+        assertEquals(3, batch.countByName("a"));
+        assertEquals(1, batch.countByName("b"));
+        assertEquals(1, batch.countByName(null));
+        assertEquals(0, batch.countByName("c"));
+        assertEquals(3, batch.dictionarySize());
+    }
+
+    //both bounds are inclusive
+    @Test
+    void countsBetweenTimestamps() {
+        OrderBatch.Builder builder = OrderBatch.builder(0);
+        for (long timestamp = 0; timestamp < 50; timestamp++) {
+            builder.add("Order", timestamp);
+        }
+        OrderBatch batch = builder.build();
+
+        assertEquals(11, batch.countBetween(10L, 20L));
+        assertEquals(50, batch.countBetween(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(0, batch.countBetween(20L, 10L));
+    }
+
+    @Test
+    void emptyBatch() {
+        OrderBatch batch = OrderBatch.builder(0).build();
+        assertEquals(0, batch.size());
+        assertEquals(0, batch.countByName("a"));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.view().moveTo(0));
+    }
+}
@@ -0,0 +1,87 @@
+package builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderCodecTest {
+
+    private static final String[] NAMES = {
+            "Order 1", "", "Bestellung über 10 €", "emoji 😀", "lone \uD800 high", "lone \uDC00 low", "\uDBFF"
+    };
+
+    //the flyweight reads every name exactly as the codec decodes it, lone surrogates included
+    @Test
+    void flyweightAgreesWithDecoder() {
+        OrderCodec codec = new OrderCodec();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        for (String name : NAMES) {
+            codec.encode(name, 42L, buffer);
+        }
+        codec.encode((String) null, OrderCodec.NO_DATE, buffer);
+        buffer.flip();
+
+        OrderFlyweight flyweight = new OrderFlyweight();
+        int offset = 0;
+        for (String name : NAMES) {
+            flyweight.wrap(buffer, offset);
+            OrderImmutable decoded = codec.decodeImmutable(buffer);
+            assertEquals(name, decoded.getName());
+            assertEquals(name, flyweight.getName());
+            assertTrue(flyweight.nameEquals(name), name);
+            assertFalse(flyweight.nameEquals(name + "x"), name);
+            assertEquals(42L, flyweight.getTimestamp());
+            offset = flyweight.nextOffset();
+            assertEquals(buffer.position(), offset);
+        }
+        flyweight.wrap(buffer, offset);
+        assertNull(flyweight.getName());
+        assertTrue(flyweight.nameEquals(null));
+        assertFalse(flyweight.hasDate());
+        assertNull(codec.decodeImmutable(buffer).getName());
+    }
+
+    //an OrderMutable without a date is written as NO_DATE and comes back without one
+    @Test
+    void mutableOrdersRoundTrip() {
+        OrderCodec codec = new OrderCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        OrderMutable dated = new OrderMutableBuilder().setName("dated").setDate(new Date(1234L)).build();
+        OrderMutable undated = new OrderMutableBuilder().setName("undated").build();
+        codec.encode(dated, buffer);
+        codec.encode(undated, buffer);
+        buffer.flip();
+
+        OrderMutable first = codec.decodeMutable(buffer);
+        assertEquals("dated", first.getName());
+        assertEquals(new Date(1234L), first.getDate());
+        OrderMutable second = codec.decodeMutable(buffer);
+        assertEquals("undated", second.getName());
+        assertEquals(OrderCodec.NO_DATE, second.getTimestamp(OrderCodec.NO_DATE));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    //decoding must not reset or fill a thread-local builder the caller is halfway through
+    @Test
+    void decodeTimestampedLeavesTheThreadLocalBuilderAlone() {
+        OrderCodec codec = new OrderCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.encode("decoded", 7L, buffer);
+        buffer.flip();
+
+        TimestampedOrder.Builder mine = TimestampedOrder.threadLocalBuilder().setName("mine").setTimestamp(1L);
+        TimestampedOrder decoded = codec.decodeTimestamped(buffer);
+        assertEquals("decoded", decoded.getName());
+        assertEquals(7L, decoded.getTimestamp());
+
+        TimestampedOrder built = mine.build();
+        assertEquals("mine", built.getName());
+        assertEquals(1L, built.getTimestamp());
+    }
+}
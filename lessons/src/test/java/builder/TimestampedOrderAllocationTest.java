@@ -0,0 +1,43 @@
+package builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+//bytes the calling thread allocates while building orders with the reused builder: the order itself
+//(24 bytes with compressed oops) and nothing else
+class TimestampedOrderAllocationTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ORDERS = 1_000_000;
+
+    @Test
+    void reusedBuilderAllocatesOnlyTheOrder() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counter is not supported by this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        TimestampedOrder[] orders = new TimestampedOrder[ORDERS];
+        build(orders, WARMUP);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        build(orders, ORDERS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        //one object header plus a long and a reference, whether or not oops are compressed
+        double perOrder = (double) allocated / ORDERS;
+        assertTrue(perOrder <= 32.5, () -> "allocated " + perOrder + " bytes/order, last " + orders[ORDERS - 1]);
+    }
+
+    private static void build(TimestampedOrder[] orders, int count) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            //the array keeps every order reachable, so escape analysis cannot hide the allocation being measured
+            orders[i] = TimestampedOrder.threadLocalBuilder().setName("Order").setTimestamp(now + i).build();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package factory;
+
+import metrics.PatternMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChocoFactoryTest {
+
+    private static final int MILK = 42;
+
+    static final class MilkChocolate implements Chocolate {
+        @Override
+        public void printPrice() { }
+    }
+
+    //a registry of this test's own, so nothing is registered in the shared default one
+    private final ChocolateRegistry registry = new ChocolateRegistry()
+            .registerShared(0, new WhiteChocolate())
+            .registerShared(1, new DarkChocolate())
+            .register(MILK, MilkChocolate::new);
+
+    //the default registry's flags 0 and 1 are stateless flyweights: every product is the same instance
+    @Test
+    void builtInKindsAreSharedFlyweights() {
+        Factory factory = new ChocoFactory(0);
+        Chocolate[] out = new Chocolate[4];
+        factory.fill(out);
+        assertInstanceOf(WhiteChocolate.class, out[0]);
+        for (Chocolate chocolate : out) {
+            assertSame(out[0], chocolate);
+        }
+        assertSame(out[0], new ChocoFactory(0).create());
+        assertSame(ChocolateRegistry.defaultRegistry().create(1), new ChocoFactory(1).create());
+        assertInstanceOf(DarkChocolate.class, new ChocoFactory(1).create());
+    }
+
+    //flags 0 and 1 are resolved through the registry like any other, so re-registering them takes effect
+    @Test
+    void builtInFlagsFollowTheRegistry() {
+        ChocolateRegistry allocating = new ChocolateRegistry().register(1, DarkChocolate::new);
+        Factory factory = new ChocoFactory(1, allocating);
+        assertInstanceOf(DarkChocolate.class, factory.create());
+        assertNotSame(factory.create(), factory.create());
+
+        allocating.register(0, MilkChocolate::new);
+        assertInstanceOf(MilkChocolate.class, new ChocoFactory(0, allocating).create());
+        Chocolate[] mixed = new Chocolate[2];
+        ChocoFactory.createAll(new int[] {0, 1}, mixed, allocating);
+        assertInstanceOf(MilkChocolate.class, mixed[0]);
+        assertInstanceOf(DarkChocolate.class, mixed[1]);
+    }
+
+    @Test
+    void registeredKindsCanBeBatchCreated() {
+        Chocolate[] out = new Chocolate[3];
+        new ChocoFactory(MILK, registry).fill(out);
+        for (Chocolate chocolate : out) {
+            assertInstanceOf(MilkChocolate.class, chocolate);
+        }
+        assertNotSame(out[0], out[1]);
+
+        int[] flags = {1, 1, MILK, 0, MILK, MILK};
+        Chocolate[] mixed = new Chocolate[flags.length];
+        ChocoFactory.createAll(flags, mixed, registry);
+        assertInstanceOf(DarkChocolate.class, mixed[0]);
+        assertInstanceOf(DarkChocolate.class, mixed[1]);
+        assertInstanceOf(MilkChocolate.class, mixed[2]);
+        assertInstanceOf(WhiteChocolate.class, mixed[3]);
+        assertInstanceOf(MilkChocolate.class, mixed[5]);
+
+        assertThrows(IllegalArgumentException.class, () -> new ChocoFactory(MILK));
+        assertThrows(IllegalArgumentException.class, () -> new ChocoFactory(7, registry));
+        assertThrows(IllegalArgumentException.class, () -> ChocoFactory.createAll(new int[] {0, 7}, new Chocolate[2], registry));
+    }
+
+    @Test
+    void bulkPathsAreCounted() {
+        PatternMetrics.enable();
+        try {
+            PatternMetrics.reset();
+            Factory factory = new ChocoFactory(1, registry);
+            factory.create();
+            factory.fill(new Chocolate[10]);
+            ChocoFactory.createAll(new int[] {0, 0, 1, MILK}, new Chocolate[4], registry);
+            assertEquals(15, PatternMetrics.CHOCOLATE_CREATE_LATENCY.count());
+        } finally {
+            PatternMetrics.disable();
+            PatternMetrics.reset();
+        }
+    }
+
+    @Test
+    void streamRejectsANegativeCount() {
+        Factory factory = new ChocoFactory(1, registry);
+        assertThrows(IllegalArgumentException.class, () -> factory.stream(-1));
+        assertEquals(0, factory.stream(0).count());
+        assertEquals(1000, factory.stream(1000).parallel().filter(c -> c instanceof DarkChocolate).count());
+    }
+}
@@ -0,0 +1,21 @@
+package factory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChocolateRegistryTest {
+
+    @Test
+    void flagsAreBounded() {
+        ChocolateRegistry registry = new ChocolateRegistry();
+        registry.register(ChocolateRegistry.MAX_FLAG, DarkChocolate::new);
+        assertInstanceOf(DarkChocolate.class, registry.create(ChocolateRegistry.MAX_FLAG));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(ChocolateRegistry.MAX_FLAG + 1, DarkChocolate::new));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(500_000_000, DarkChocolate::new));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(-1, DarkChocolate::new));
+        assertThrows(IllegalArgumentException.class, () -> registry.create(ChocolateRegistry.MAX_FLAG + 1));
+    }
+}
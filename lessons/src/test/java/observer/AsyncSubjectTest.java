@@ -0,0 +1,112 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSubjectTest {
+
+    //setValue calls made while an observer's update() is running fold into one more update,
+    //which sees the latest value; every notification is either delivered or counted as coalesced
+    @Test
+    void slowObserverGetsTheLatestValueOnce() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            AsyncSubject subject = new AsyncSubject(pool);
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Integer> seen = new CopyOnWriteArrayList<>();
+            subject.attach(() -> {
+                seen.add(subject.getValue());
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            subject.setValue(1);
+            assertTrue(entered.await(10, TimeUnit.SECONDS), "first update did not start");
+            for (int value = 2; value <= 10; value++) {
+                subject.setValue(value);
+            }
+            release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (subject.deliveredCount() + subject.coalescedCount() < 10 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(List.of(1, 10), seen);
+            assertEquals(2, subject.deliveredCount());
+            assertEquals(8, subject.coalescedCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    //one mailbox per observer: a blocked observer neither delays others nor sees its updates overlap
+    @Test
+    void observersAreIndependentAndSerial() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            AsyncSubject subject = new AsyncSubject(pool);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fastDone = new CountDownLatch(1);
+            int[] running = new int[1];
+            boolean[] overlapped = new boolean[1];
+            List<Integer> slowSeen = new CopyOnWriteArrayList<>();
+            subject.attach(() -> {
+                synchronized (running) {
+                    if (running[0]++ != 0) {
+                        overlapped[0] = true;
+                    }
+                }
+                slowSeen.add(subject.getValue());
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (running) {
+                    running[0]--;
+                }
+            });
+            subject.attach(() -> {
+                if (subject.getValue() == 100) {
+                    fastDone.countDown();
+                }
+            });
+
+            for (int value = 1; value <= 100; value++) {
+                subject.setValue(value);
+            }
+            assertTrue(fastDone.await(10, TimeUnit.SECONDS), "fast observer was held up by the slow one");
+            release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (subject.deliveredCount() + subject.coalescedCount() < 200 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(200, subject.deliveredCount() + subject.coalescedCount());
+            assertEquals(100, (int) slowSeen.get(slowSeen.size() - 1));
+            for (int i = 1; i < slowSeen.size(); i++) {
+                assertTrue(slowSeen.get(i - 1) <= slowSeen.get(i), "updates out of order: " + slowSeen);
+            }
+            synchronized (running) {
+                assertFalse(overlapped[0], "updates of one observer overlapped");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
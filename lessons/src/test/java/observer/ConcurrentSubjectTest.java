@@ -0,0 +1,69 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//stress check for ConcurrentSubject: writers call setValue while other threads attach/detach observers.
+//Every thread finishes without ConcurrentModificationException and the registry ends up empty again
+class ConcurrentSubjectTest {
+
+    @Test
+    void attachDetachWhileNotifying() throws InterruptedException {
+        final int writers = 4;
+        final int subscribers = 4;
+        final int iterations = 100_000;
+
+        final ConcurrentSubject subject = new ConcurrentSubject();
+        final AtomicInteger notifications = new AtomicInteger();
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        subject.setValue(ThreadLocalRandom.current().nextInt());
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        for (int s = 0; s < subscribers; s++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations / 10; i++) {
+                        Observer o = notifications::incrementAndGet;
+                        subject.attach(o);
+                        subject.detach(o);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertTrue(failures.isEmpty(), () -> "stress run failed: " + failures.get(0));
+        assertEquals(0, subject.observerCount(), "observers left attached");
+    }
+}
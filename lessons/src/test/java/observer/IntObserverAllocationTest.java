@@ -0,0 +1,46 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+//heap allocated by the setValue -> notify path with push-model observers attached.
+//Uses the per-thread allocation counter of HotSpot (com.sun.management.ThreadMXBean), so it sees
+//exactly what the calling thread allocated; after warm-up the path allocates nothing
+class IntObserverAllocationTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int EVENTS = 1_000_000;
+
+    @Test
+    void notifyingIntObserversDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counter is not supported by this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ConcreteSubject subject = new ConcreteSubject();
+        final long[] sum = new long[1];
+        subject.attach((int oldValue, int newValue) -> sum[0] += newValue - oldValue);
+        subject.attach((int oldValue, int newValue) -> sum[0] ^= newValue);
+
+        run(subject, WARMUP);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(subject, EVENTS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        //well under a byte per event: a boxed value or an iterator per event would cost 16 bytes or more
+        double perEvent = (double) allocated / EVENTS;
+        assertTrue(perEvent < 1.0, () -> "allocated " + perEvent + " bytes/event, checksum " + sum[0]);
+    }
+
+    private static void run(ConcreteSubject subject, int events) {
+        for (int i = 0; i < events; i++) {
+            subject.setValue(i);
+        }
+    }
+}
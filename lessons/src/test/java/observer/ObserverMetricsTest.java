@@ -0,0 +1,31 @@
+package observer;
+
+import metrics.PatternMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ObserverMetricsTest {
+
+    //one setValue is one notify sample covering every kind of observer it reached
+    @Test
+    void setValueCountsTheWholeFanOut() {
+        ConcreteSubject subject = new ConcreteSubject();
+        subject.attach(() -> { });
+        subject.attach((int oldValue, int newValue) -> { });
+        subject.attach((int oldValue, int newValue) -> { });
+        subject.attach((int oldValue, int newValue) -> { }, 0, 10);
+        subject.attach((int oldValue, int newValue) -> { }, 20, 30);
+
+        PatternMetrics.enable();
+        try {
+            PatternMetrics.reset();
+            subject.setValue(5);
+            assertEquals(1, PatternMetrics.NOTIFY_LATENCY.count());
+            assertEquals(4, PatternMetrics.notifiedObservers());
+        } finally {
+            PatternMetrics.disable();
+            PatternMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelSubjectTest {
+
+    private static final int OBSERVERS = 64;
+
+    @Test
+    void awaitNotifiesEveryObserverBeforeSetValueReturns() {
+        AtomicInteger reported = new AtomicInteger();
+        ForkJoinPool pool = pool(reported);
+        try {
+            ParallelSubject subject = new ParallelSubject(pool, 4, ParallelSubject.Completion.AWAIT);
+            AtomicInteger notified = attachObservers(subject, null);
+            subject.setValue(1);
+            assertEquals(OBSERVERS, notified.get());
+            assertEquals(0, reported.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void awaitReportsAFailingObserverAndNotifiesTheRest() {
+        AtomicInteger reported = new AtomicInteger();
+        ForkJoinPool pool = pool(reported);
+        try {
+            ParallelSubject subject = new ParallelSubject(pool, 4, ParallelSubject.Completion.AWAIT);
+            subject.attach(() -> {
+                throw new IllegalStateException("observer failed");
+            });
+            AtomicInteger notified = attachObservers(subject, null);
+            subject.setValue(1);
+            assertEquals(OBSERVERS, notified.get());
+            assertEquals(1, reported.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    //setValue returns while observers are still blocked; a failure in the background is reported, not lost
+    @Test
+    void fireAndForgetReturnsAtOnceAndReportsFailures() throws InterruptedException {
+        AtomicInteger reported = new AtomicInteger();
+        ForkJoinPool pool = pool(reported);
+        try {
+            ParallelSubject subject = new ParallelSubject(pool, 4, ParallelSubject.Completion.FIRE_AND_FORGET);
+            CountDownLatch release = new CountDownLatch(1);
+            subject.attach(() -> {
+                throw new IllegalStateException("observer failed");
+            });
+            AtomicInteger notified = attachObservers(subject, release);
+            subject.setValue(1);
+            assertTrue(notified.get() < OBSERVERS, "setValue waited for the observers");
+            release.countDown();
+
+            assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS), "observers did not finish");
+            assertEquals(OBSERVERS, notified.get());
+            assertEquals(1, reported.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ForkJoinPool pool(AtomicInteger reported) {
+        return new ForkJoinPool(2, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                (thread, e) -> reported.incrementAndGet(), false);
+    }
+
+    private static AtomicInteger attachObservers(ParallelSubject subject, CountDownLatch release) {
+        AtomicInteger notified = new AtomicInteger();
+        for (int i = 0; i < OBSERVERS; i++) {
+            subject.attach(() -> {
+                if (release != null) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                notified.incrementAndGet();
+            });
+        }
+        return notified;
+    }
+}
@@ -0,0 +1,66 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RingBufferDispatcherTest {
+
+    //a consumer whose observer throws keeps consuming, so the producer can wrap the ring many times
+    @Test
+    void failingObserverDoesNotBlockTheProducer() {
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        AtomicInteger reported = new AtomicInteger();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.incrementAndGet());
+        try {
+            RingBufferDispatcher dispatcher = new RingBufferDispatcher(8, WaitStrategy.YIELD);
+            AtomicLong sum = new AtomicLong();
+            dispatcher.attach((oldValue, newValue) -> {
+                if (newValue == 3) {
+                    throw new IllegalStateException("observer failed on " + newValue);
+                }
+                sum.addAndGet(newValue);
+            });
+            dispatcher.start();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 1; i <= 1000; i++) {
+                    dispatcher.publish(i);
+                }
+                dispatcher.stop();
+            });
+            assertEquals(1, reported.get());
+            assertEquals(1000L * 1001 / 2 - 3, sum.get());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    //consumers get the subject's own old/new pair, not one reconstructed from what they saw before
+    @Test
+    void deliversTheSubjectsOldValue() throws InterruptedException {
+        ConcreteSubject subject = new ConcreteSubject();
+        subject.setValue(5);
+        RingBufferDispatcher dispatcher = new RingBufferDispatcher(8, WaitStrategy.YIELD);
+        List<String> changes = new CopyOnWriteArrayList<>();
+        dispatcher.attach((oldValue, newValue) -> changes.add(oldValue + "->" + newValue));
+        subject.attach(dispatcher);
+        dispatcher.start();
+
+        subject.setValue(7);
+        subject.setValue(-3);
+        subject.setValue(Integer.MIN_VALUE);
+        dispatcher.publish(1, 2);
+        dispatcher.publish(9);
+        dispatcher.stop();
+
+        assertEquals(List.of("5->7", "7->-3", "-3->" + Integer.MIN_VALUE, "1->2", "2->9"), changes);
+    }
+}
@@ -0,0 +1,131 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SubjectJournalTest {
+
+    @TempDir
+    Path directory;
+
+    //a full segment maps the next file, named after its first sequence
+    @Test
+    void rollsToANewSegmentWhenFull() throws IOException {
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, journal.append(i * 10));
+            }
+        }
+        assertEquals(List.of("00000000000000000000.journal", "00000000000000000004.journal",
+                "00000000000000000008.journal"), files());
+    }
+
+    //the first empty slot of the last segment is where appends continue after a reopen
+    @Test
+    void reopenFindsTheEndOfTheData() throws IOException {
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(i);
+            }
+        }
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            assertEquals(6, journal.nextSequence());
+            assertEquals(6, journal.append(6));
+            assertEquals(List.of("0->0", "0->1", "1->2", "2->3", "3->4", "4->5", "5->6"), replay(journal, 0));
+        }
+    }
+
+    //a last segment that is exactly full is not appended to again: the next append starts a new one
+    @Test
+    void reopenAfterAFullSegmentStartsTheNextOne() throws IOException {
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            for (int i = 0; i < 8; i++) {
+                journal.append(i);
+            }
+        }
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            assertEquals(8, journal.nextSequence());
+            assertEquals(8, journal.append(8));
+            assertEquals(List.of("6->7", "7->8"), replay(journal, 7));
+        }
+        assertEquals(3, files().size());
+    }
+
+    //reading segments written with another size would put every record at the wrong offset
+    @Test
+    void rejectsADifferentSegmentSize() throws IOException {
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(i);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SubjectJournal(directory, 8));
+        assertThrows(IllegalArgumentException.class, () -> new SubjectJournal(directory, 2));
+    }
+
+    //replay across segments starts with the value before "fromSequence" as the old value
+    @Test
+    void replaysFromAnySequence() throws IOException {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            subject.attach(journal);
+            for (int i = 1; i <= 10; i++) {
+                subject.setValue(i * 10);
+            }
+            assertEquals(List.of("0->10", "10->20", "20->30", "30->40", "40->50", "50->60", "60->70",
+                    "70->80", "80->90", "90->100"), replay(journal, 0));
+            assertEquals(List.of("30->40", "40->50", "50->60"), replay(journal, 3).subList(0, 3));
+            assertEquals(List.of("90->100"), replay(journal, 9));
+            assertEquals(List.of(), replay(journal, 10));
+        }
+    }
+
+    //a negative start replays everything, including the first record
+    @Test
+    void negativeFromSequenceReplaysFromTheStart() throws IOException {
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            journal.append(5);
+            journal.append(7);
+            assertEquals(List.of("0->5", "5->7"), replay(journal, -1));
+            assertEquals(List.of("0->5", "5->7"), replay(journal, Long.MIN_VALUE));
+        }
+    }
+
+    //history first, then live changes, with nothing missed in between
+    @Test
+    void replayAndAttachContinuesWithLiveValues() throws IOException {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectJournal journal = new SubjectJournal(directory, 4)) {
+            subject.attach(journal);
+            subject.setValue(1);
+            subject.setValue(2);
+            List<String> seen = new ArrayList<>();
+            assertEquals(2, journal.replayAndAttach(subject, 0, (oldValue, newValue) -> seen.add(oldValue + "->" + newValue)));
+            subject.setValue(3);
+            assertEquals(List.of("0->1", "1->2", "2->3"), seen);
+        }
+    }
+
+    private static List<String> replay(SubjectJournal journal, long fromSequence) throws IOException {
+        List<String> seen = new ArrayList<>();
+        long delivered = journal.replay(fromSequence, (oldValue, newValue) -> seen.add(oldValue + "->" + newValue));
+        assertEquals(seen.size(), delivered);
+        return seen;
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
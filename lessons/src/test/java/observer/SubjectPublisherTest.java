@@ -0,0 +1,220 @@
+package observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubjectPublisherTest {
+
+    //Flow rule 1.3: onNext must not run while onSubscribe is still running, even when values are published
+    //concurrently and the subscriber requests from inside onSubscribe
+    @Test
+    void onSubscribeCompletesBeforeOtherSignals() throws InterruptedException {
+        ConcreteSubject subject = new ConcreteSubject();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean inOnSubscribe = new AtomicBoolean();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch received = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            int value = 0;
+            while (!stop.get()) {
+                subject.setValue(value++);
+            }
+        });
+        try (SubjectPublisher publisher = new SubjectPublisher(subject, 16,
+                SubjectPublisher.OverflowPolicy.DROP_OLDEST, executor)) {
+            producer.start();
+            publisher.subscribe(new Flow.Subscriber<Integer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    inOnSubscribe.set(true);
+                    subscription.request(Long.MAX_VALUE);
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inOnSubscribe.set(false);
+                }
+
+                @Override
+                public void onNext(Integer item) {
+                    if (inOnSubscribe.get()) {
+                        overlapped.set(true);
+                    }
+                    received.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    overlapped.set(true);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            assertTrue(received.await(10, TimeUnit.SECONDS), "no value delivered after onSubscribe");
+            //ConcreteSubject allows one writer, so the producer stops before close() detaches the publisher
+            stop.set(true);
+            producer.join();
+        } finally {
+            stop.set(true);
+            producer.join();
+            executor.shutdown();
+        }
+        assertFalse(overlapped.get(), "a signal was delivered while onSubscribe was running");
+    }
+
+    //drains on the calling thread, so each test sees deliveries as soon as it requests them
+    private static final Executor INLINE = Runnable::run;
+
+    @Test
+    void deliversOnlyWhatWasRequested() {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectPublisher publisher = new SubjectPublisher(subject, 8, SubjectPublisher.OverflowPolicy.DROP_OLDEST, INLINE)) {
+            RecordingSubscriber subscriber = new RecordingSubscriber(2);
+            publisher.subscribe(subscriber);
+            for (int value = 1; value <= 5; value++) {
+                subject.setValue(value);
+            }
+            assertEquals(List.of(1, 2), subscriber.items);
+            subscriber.subscription.request(3);
+            assertEquals(List.of(1, 2, 3, 4, 5), subscriber.items);
+            assertEquals(0, publisher.droppedCount());
+        }
+    }
+
+    @Test
+    void dropOldestKeepsTheMostRecentValues() {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectPublisher publisher = new SubjectPublisher(subject, 2, SubjectPublisher.OverflowPolicy.DROP_OLDEST, INLINE)) {
+            RecordingSubscriber subscriber = new RecordingSubscriber(0);
+            publisher.subscribe(subscriber);
+            for (int value = 1; value <= 5; value++) {
+                subject.setValue(value);
+            }
+            subscriber.subscription.request(10);
+            assertEquals(List.of(4, 5), subscriber.items);
+            assertEquals(3, publisher.droppedCount());
+        }
+    }
+
+    @Test
+    void dropLatestKeepsTheFirstValues() {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectPublisher publisher = new SubjectPublisher(subject, 2, SubjectPublisher.OverflowPolicy.DROP_LATEST, INLINE)) {
+            RecordingSubscriber subscriber = new RecordingSubscriber(0);
+            publisher.subscribe(subscriber);
+            for (int value = 1; value <= 5; value++) {
+                subject.setValue(value);
+            }
+            subscriber.subscription.request(10);
+            assertEquals(List.of(1, 2), subscriber.items);
+            assertEquals(3, publisher.droppedCount());
+        }
+    }
+
+    //the producer waits for demand and nothing is lost
+    @Test
+    void blockSlowsTheProducerDown() throws InterruptedException {
+        ConcreteSubject subject = new ConcreteSubject();
+        try (SubjectPublisher publisher = new SubjectPublisher(subject, 2, SubjectPublisher.OverflowPolicy.BLOCK, INLINE)) {
+            RecordingSubscriber subscriber = new RecordingSubscriber(0);
+            publisher.subscribe(subscriber);
+            Thread producer = produce(subject, 5);
+            awaitState(producer, Thread.State.WAITING);
+            subscriber.subscription.request(Long.MAX_VALUE);
+            producer.join(10_000);
+            assertFalse(producer.isAlive(), "producer still blocked");
+            assertEquals(List.of(1, 2, 3, 4, 5), subscriber.items);
+            assertEquals(0, publisher.droppedCount());
+        }
+    }
+
+    //close() releases a producer blocked on a full buffer; the value it was offering is dropped and counted
+    @Test
+    void closeReleasesABlockedProducer() throws InterruptedException {
+        ConcreteSubject subject = new ConcreteSubject();
+        SubjectPublisher publisher = new SubjectPublisher(subject, 2, SubjectPublisher.OverflowPolicy.BLOCK, INLINE);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+        Thread producer = produce(subject, 5);
+        awaitState(producer, Thread.State.WAITING);
+
+        publisher.close();
+        producer.join(10_000);
+        assertFalse(producer.isAlive(), "producer still blocked after close()");
+        assertEquals(1, publisher.droppedCount());
+
+        subscriber.subscription.request(10);
+        assertEquals(List.of(1, 2), subscriber.items);
+        assertTrue(subscriber.completed);
+    }
+
+    private static Thread produce(ConcreteSubject subject, int count) {
+        Thread producer = new Thread(() -> {
+            for (int value = 1; value <= count; value++) {
+                subject.setValue(value);
+            }
+        });
+        producer.start();
+        return producer;
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(state, thread.getState());
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<Integer> {
+
+        private final long initialRequest;
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean completed;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package output;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBatchSinkTest {
+
+    @Test
+    void interruptedCallerStillWritesItsLine() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AsyncBatchSink sink = new AsyncBatchSink(new PrintStream(bytes, true, StandardCharsets.UTF_8), 4)) {
+            Thread.currentThread().interrupt();
+            sink.println("kept");
+            assertTrue(Thread.interrupted(), "interrupt was not restored");
+        }
+        assertEquals("kept" + System.lineSeparator(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    //every println that returned normally is written, even when it raced with close()
+    @Test
+    void closeWritesEveryAcceptedLine() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            AsyncBatchSink sink = new AsyncBatchSink(new PrintStream(bytes, true, StandardCharsets.UTF_8), 8);
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(4);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(new Thread(() -> {
+                    started.countDown();
+                    try {
+                        for (;;) {
+                            sink.println("line");
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        //the sink was closed
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            started.await();
+            Thread.sleep(5);
+            sink.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+            assertEquals(accepted.get(), lines.length);
+        }
+    }
+}
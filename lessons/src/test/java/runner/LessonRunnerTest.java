@@ -0,0 +1,41 @@
+package runner;
+
+import concurrent.VirtualThreads;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LessonRunnerTest {
+
+    //"virtual" is only reported as such where the runtime really has virtual threads
+    @Test
+    void reportNamesTheExecutorThatRan() {
+        String name = LessonRunner.executorName("virtual");
+        if (VirtualThreads.available()) {
+            assertEquals("virtual", name);
+        } else {
+            assertTrue(name.startsWith("cached (virtual threads are not available"), name);
+        }
+        assertTrue(LessonRunner.report(name, List.of()).startsWith("executor: " + name + "\n"));
+
+        assertEquals("sequential", LessonRunner.executorName("sequential"));
+        assertEquals("fixed:3", LessonRunner.executorName("fixed:3"));
+        assertEquals("fixed:" + Runtime.getRuntime().availableProcessors(), LessonRunner.executorName("fixed"));
+    }
+
+    @Test
+    void virtualExecutorRunsTasks() throws Exception {
+        assertNull(LessonRunner.executor("sequential"));
+        ExecutorService executor = LessonRunner.executor("virtual");
+        try {
+            assertEquals(42, executor.submit(() -> 42).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,6 +1,73 @@
+import runner.LessonRunner;
+import runner.StartupComparison;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+//runs the main methods of the pattern lessons.
+//
+//  java -cp lessons.jar Main [--executor=sequential|fixed[:N]|cached|virtual] [--warm-runs=N]
+//  java -cp lessons.jar Main --appcds[=archive.jsa] [--runs=N]
+//
+//The first form prints each lesson's output and its cold and warmed-up latency. The second trains an
+//AppCDS archive on a run of all lessons and compares child JVM startup with and without it
 public class Main {
 
-    public static void main(String[] args) {
-        //use to call main methods of pattern classes
+    public static void main(String[] args) throws Exception {
+        String executorSpec = "sequential";
+        int warmRuns = 10;
+        int startupRuns = 5;
+        boolean startupOnly = false;
+        Path archive = null;
+        for (String arg : args) {
+            if (arg.startsWith("--executor=")) {
+                executorSpec = arg.substring("--executor=".length());
+            } else if (arg.startsWith("--warm-runs=")) {
+                warmRuns = Integer.parseInt(arg.substring("--warm-runs=".length()));
+            } else if (arg.startsWith("--runs=")) {
+                startupRuns = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.equals("--appcds")) {
+                archive = Paths.get(System.getProperty("java.io.tmpdir"), "javapatterns-lessons.jsa");
+            } else if (arg.startsWith("--appcds=")) {
+                archive = Paths.get(arg.substring("--appcds=".length()));
+            } else if (arg.equals("--startup")) {
+                startupOnly = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        if (archive != null) {
+            System.out.println(new StartupComparison(archive, startupRuns).compare("Main", "--startup"));
+            return;
+        }
+
+        List<Class<?>> lessons = LessonRunner.discover();
+        if (startupOnly) {
+            //what the child JVMs of the startup comparison do: every lesson once, output captured and dropped
+            new LessonRunner(lessons, null, 0).run();
+            return;
+        }
+
+        ExecutorService executor = LessonRunner.executor(executorSpec);
+        List<LessonRunner.LessonResult> results;
+        try {
+            results = new LessonRunner(lessons, executor, warmRuns).run();
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        for (LessonRunner.LessonResult result : results) {
+            System.out.println("=== " + result.name() + " ===");
+            System.out.print(result.output());
+            if (result.coldFailure() != null) {
+                System.out.println("threw " + result.coldFailure());
+            }
+        }
+        System.out.println();
+        System.out.print(LessonRunner.report(LessonRunner.executorName(executorSpec), results));
     }
 }
@@ -1,7 +1,11 @@
 package abstract_factory;
 
+import metrics.PatternMetrics;
+import output.Sinks;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class AbstractFactoryLesson {
 
@@ -85,13 +89,32 @@ class AbstractGUIFactory {
     //program type of OS will be checked inside the method (program has
     //previously/right in method detected and created some status like "typeOfOS")
     public IGUIFactory createFactory(String factoryType) throws Exception {
+        long start = PatternMetrics.start();
         //instead of factoryType you can switch smth like "System.getProperty("os.name")"
-        switch (factoryType) {
-            case "Linux": return new LinuxFactory();
-            case "OSX": return new OSXFactory();
-
-            default: throw new Exception("No such operating system");
+        GUIFamily family = GUIFamily.forKey(factoryType);
+        if (family != null) {
+            //factories are stateless, so every call gets the family's cached instance
+            IGUIFactory factory = family.factory();
+            PatternMetrics.factoryLookup(start, factoryType, true);
+            return factory;
+        }
+        //families plugged in through the GUIFactoryProvider SPI
+        Optional<IGUIFactory> provided = GUIFactoryProviders.shared().find(factoryType);
+        PatternMetrics.factoryLookup(start, factoryType, provided.isPresent());
+        if (!provided.isPresent()) {
+            throw new Exception("No such operating system");
         }
+        return provided.get();
+    }
+
+    //same lookup without the exception: use it where unknown types are expected, building the
+    //exception's stack trace costs far more than the lookup itself
+    public Optional<IGUIFactory> findFactory(String factoryType) {
+        long start = PatternMetrics.start();
+        GUIFamily family = GUIFamily.forKey(factoryType);
+        Optional<IGUIFactory> factory = family == null ? GUIFactoryProviders.shared().find(factoryType) : family.cachedFactory();
+        PatternMetrics.factoryLookup(start, factoryType, factory.isPresent());
+        return factory;
     }
 }
 
@@ -105,22 +128,22 @@ interface ILogo {
 
 class LinuxButton implements IButton {
     @Override
-    public void paint() { System.out.println("LinuxButton"); }
+    public void paint() { Sinks.current().println("LinuxButton"); }
 }
 
 class OSXButton implements IButton {
     @Override
-    public void paint() { System.out.println("OSXButton"); }
+    public void paint() { Sinks.current().println("OSXButton"); }
 }
 
 class LinuxLogo implements ILogo {
     @Override
-    public void print() { System.out.println("LinuxLogo"); }
+    public void print() { Sinks.current().println("LinuxLogo"); }
 }
 
 class OSXLogo implements ILogo {
     @Override
-    public void print() { System.out.println("OSXLogo"); }
+    public void print() { Sinks.current().println("OSXLogo"); }
 }
 
 interface IGUIFactory {
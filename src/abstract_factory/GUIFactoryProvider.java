@@ -0,0 +1,89 @@
+package abstract_factory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//SPI for product families that are not built in: a provider is a public class with a public no-arg
+//constructor, listed in META-INF/services/abstract_factory.GUIFactoryProvider and annotated with
+//@GUIFamilyName. The registry reads the annotation from the provider's class, which ServiceLoader loads
+//without initializing it, so discovering families runs no provider code and loads no product classes
+interface GUIFactoryProvider {
+    IGUIFactory create();
+}
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@interface GUIFamilyName {
+    String value();
+}
+
+//families found through ServiceLoader. Provider classes are listed once, on first use of the registry;
+//a provider is instantiated, and its factory created, only when its family is first asked for
+final class GUIFactoryProviders {
+
+    private static volatile GUIFactoryProviders shared;
+
+    private final Map<String, ServiceLoader.Provider<GUIFactoryProvider>> providers;
+    private final Map<String, Optional<IGUIFactory>> factories = new ConcurrentHashMap<>();
+
+    private GUIFactoryProviders(ClassLoader loader) {
+        Map<String, ServiceLoader.Provider<GUIFactoryProvider>> byFamily = new HashMap<>();
+        ServiceLoader.load(GUIFactoryProvider.class, loader).stream().forEach(provider -> {
+            GUIFamilyName name = provider.type().getAnnotation(GUIFamilyName.class);
+            if (name == null) {
+                throw new IllegalStateException(provider.type().getName() + " is not annotated with @GUIFamilyName");
+            }
+            byFamily.putIfAbsent(name.value(), provider);
+        });
+        this.providers = byFamily;
+    }
+
+    public static GUIFactoryProviders shared() {
+        GUIFactoryProviders registry = shared;
+        if (registry == null) {
+            synchronized (GUIFactoryProviders.class) {
+                registry = shared;
+                if (registry == null) {
+                    registry = new GUIFactoryProviders(GUIFactoryProviders.class.getClassLoader());
+                    shared = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public Set<String> families() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+
+    public Optional<IGUIFactory> find(String family) {
+        if (family == null) {
+            return Optional.empty();
+        }
+        Optional<IGUIFactory> factory = factories.get(family);
+        if (factory == null) {
+            ServiceLoader.Provider<GUIFactoryProvider> provider = providers.get(family);
+            if (provider == null) {
+                return Optional.empty();
+            }
+            factory = factories.computeIfAbsent(family, key -> Optional.of(provider.get().create()));
+        }
+        return factory;
+    }
+
+    //instantiates every provider up front, the way a switch over all families would
+    public void initializeAll() {
+        for (String family : providers.keySet()) {
+            find(family);
+        }
+    }
+}
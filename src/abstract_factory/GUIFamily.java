@@ -0,0 +1,58 @@
+package abstract_factory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+//the known product families, each with one cached factory. A family's factory lives in its own holder
+//class, which the JVM loads on the first factory() call - so looking a family up by key does not load
+//LinuxFactory, OSXFactory or their products until that family is actually used
+enum GUIFamily {
+
+    LINUX("Linux") {
+        @Override
+        Optional<IGUIFactory> cachedFactory() { return LinuxHolder.FACTORY; }
+    },
+    OSX("OSX") {
+        @Override
+        Optional<IGUIFactory> cachedFactory() { return OSXHolder.FACTORY; }
+    };
+
+    private static final Map<String, GUIFamily> BY_KEY = new HashMap<>();
+
+    static {
+        for (GUIFamily family : values()) {
+            BY_KEY.put(family.key, family);
+        }
+    }
+
+    private final String key;
+
+    GUIFamily(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    //null for an unknown key; no exception, no allocation
+    public static GUIFamily forKey(String key) {
+        return key == null ? null : BY_KEY.get(key);
+    }
+
+    public IGUIFactory factory() {
+        return cachedFactory().get();
+    }
+
+    //the Optional is cached as well, so a successful lookup through AbstractGUIFactory allocates nothing
+    abstract Optional<IGUIFactory> cachedFactory();
+
+    private static final class LinuxHolder {
+        static final Optional<IGUIFactory> FACTORY = Optional.of(new LinuxFactory());
+    }
+
+    private static final class OSXHolder {
+        static final Optional<IGUIFactory> FACTORY = Optional.of(new OSXFactory());
+    }
+}
@@ -0,0 +1,29 @@
+package abstract_factory;
+
+import output.Sinks;
+
+//a family added through the GUIFactoryProvider SPI, without touching AbstractGUIFactory
+@GUIFamilyName("Windows")
+public final class WindowsFactoryProvider implements GUIFactoryProvider {
+
+    @Override
+    public IGUIFactory create() { return new WindowsFactory(); }
+}
+
+class WindowsButton implements IButton {
+    @Override
+    public void paint() { Sinks.current().println("WindowsButton"); }
+}
+
+class WindowsLogo implements ILogo {
+    @Override
+    public void print() { Sinks.current().println("WindowsLogo"); }
+}
+
+class WindowsFactory implements IGUIFactory {
+    @Override
+    public IButton createButton() { return new WindowsButton(); }
+
+    @Override
+    public ILogo createLogo() { return new WindowsLogo(); }
+}
@@ -1,5 +1,7 @@
 package builder;
 
+import metrics.PatternMetrics;
+
 import java.util.Date;
 
 public class BuilderLesson {
@@ -64,6 +66,11 @@ class OrderMutable {
         return (Date) this.date.clone();
     }
 
+    //the date as epoch millis, or "noDate" when none was set; no clone, for OrderCodec
+    long getTimestamp(long noDate) {
+        return date == null ? noDate : date.getTime();
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -97,7 +104,9 @@ class OrderMutableBuilder {
         return this;
     }
 
+    //build() only hands out the order the setters filled in, so it is counted but not timed
     public OrderMutable build(){
+        PatternMetrics.orderBuilt();
         return this.order;
     }
 }
@@ -134,6 +143,7 @@ final class OrderImmutable {
         private OrderImmutableBuilder(){ }
 
         public OrderImmutable build(){
+            PatternMetrics.orderBuilt();
             return OrderImmutable.this;
         }
 
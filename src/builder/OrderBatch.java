@@ -0,0 +1,162 @@
+package builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//columnar (struct-of-arrays) storage for large numbers of orders: timestamps live in one long[] and
+//names are dictionary-encoded into an int[] of ids, so an order costs 12 bytes instead of an
+//OrderImmutable + Date (+ often its own String). Scans over a column walk a primitive array.
+//Orders are read through a View, a reusable flyweight that points at one row at a time
+final class OrderBatch {
+
+    private final long[] timestamps;
+    private final int[] nameIds;
+    private final String[] dictionary;
+    private final Map<String, Integer> ids;
+    private final int size;
+
+    private OrderBatch(long[] timestamps, int[] nameIds, String[] dictionary, Map<String, Integer> ids, int size) {
+        this.timestamps = timestamps;
+        this.nameIds = nameIds;
+        this.dictionary = dictionary;
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //number of distinct names
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    //a cursor positioned on the first order; move it with View.moveTo
+    public View view() {
+        return new View();
+    }
+
+    public int countBetween(long fromTimestamp, long toTimestamp) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long timestamp = timestamps[i];
+            if (timestamp >= fromTimestamp && timestamp <= toTimestamp) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int countByName(String name) {
+        Integer known = ids.get(name);
+        if (known == null) {
+            return 0;
+        }
+        int id = known;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (nameIds[i] == id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //read-only flyweight with the same getters as OrderImmutable
+    public final class View {
+
+        private int index;
+
+        private View(){ }
+
+        public View moveTo(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+            }
+            this.index = index;
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String getName() {
+            return dictionary[nameIds[index]];
+        }
+
+        public long getTimestamp() {
+            return timestamps[index];
+        }
+
+        //allocates a new Date, prefer getTimestamp() on hot paths
+        public Date getDate() {
+            return new Date(timestamps[index]);
+        }
+
+        @Override
+        public String toString() {
+            return "OrderBatch.View{" +
+                    "name='" + getName() + '\'' +
+                    ", date=" + getDate() +
+                    '}';
+        }
+    }
+
+    public static final class Builder {
+
+        private long[] timestamps;
+        private int[] nameIds;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int size;
+
+        private Builder(int expectedSize){
+            this.timestamps = new long[Math.max(expectedSize, 16)];
+            this.nameIds = new int[timestamps.length];
+        }
+
+        public Builder add(String name, long timestamp){
+            if (size == timestamps.length) {
+                int capacity = size + (size >> 1);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+            }
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = dictionary.size();
+                ids.put(name, id);
+                dictionary.add(name);
+            }
+            timestamps[size] = timestamp;
+            nameIds[size] = id;
+            size++;
+            return this;
+        }
+
+        public Builder add(String name, Date date){
+            return add(name, date.getTime());
+        }
+
+        //the builder must not be used after build(): the batch takes over its arrays and name ids
+        public OrderBatch build(){
+            if (timestamps.length > size) {
+                timestamps = Arrays.copyOf(timestamps, size);
+                nameIds = Arrays.copyOf(nameIds, size);
+            }
+            OrderBatch batch = new OrderBatch(timestamps, nameIds, dictionary.toArray(new String[0]), ids, size);
+            timestamps = null;
+            nameIds = null;
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package builder;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+//compact binary form of an order, written into and read from a caller-supplied ByteBuffer (heap or direct)
+//at its current position:
+//  long  timestamp   epoch millis, NO_DATE when the order has no date
+//  int   nameLength  number of UTF-8 bytes, -1 for a null name
+//  byte  name[nameLength]
+//The name is encoded char by char straight into the buffer, so encoding allocates nothing.
+//Decoding builds the order's String from a scratch array owned by the codec, which makes an instance
+//single-threaded; use one codec per thread. To look at an encoded order without decoding it, see OrderFlyweight
+final class OrderCodec {
+
+    static final long NO_DATE = Long.MIN_VALUE;
+    static final int HEADER_SIZE = 12;
+
+    private char[] scratch = new char[64];
+    //decodeTimestamped's own builder: the thread-local one may be half-filled by the caller
+    private final TimestampedOrder.Builder timestampedBuilder = TimestampedOrder.builder();
+
+    public void encode(OrderImmutable order, ByteBuffer buffer) {
+        Date date = order.getDate();
+        encode(order.getName(), date == null ? NO_DATE : date.getTime(), buffer);
+    }
+
+    public void encode(OrderMutable order, ByteBuffer buffer) {
+        //not getDate(): it returns a clone and fails when no date was set
+        encode(order.getName(), order.getTimestamp(NO_DATE), buffer);
+    }
+
+    public void encode(TimestampedOrder order, ByteBuffer buffer) {
+        encode(order.getName(), order.getTimestamp(), buffer);
+    }
+
+    public void encode(String name, long timestamp, ByteBuffer buffer) {
+        int length = name == null ? -1 : utf8Length(name);
+        if (buffer.remaining() < HEADER_SIZE + Math.max(length, 0)) {
+            throw new BufferOverflowException();
+        }
+        buffer.putLong(timestamp);
+        buffer.putInt(length);
+        if (name != null) {
+            putUtf8(name, buffer);
+        }
+    }
+
+    public OrderImmutable decodeImmutable(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        String name = getUtf8(buffer, buffer.getInt());
+        OrderImmutable.OrderImmutableBuilder builder = OrderImmutable.getBuilder().setName(name);
+        if (timestamp != NO_DATE) {
+            builder.setDate(new Date(timestamp));
+        }
+        return builder.build();
+    }
+
+    public OrderMutable decodeMutable(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        OrderMutable order = new OrderMutable();
+        order.setName(getUtf8(buffer, buffer.getInt()));
+        if (timestamp != NO_DATE) {
+            order.setDate(new Date(timestamp));
+        }
+        return order;
+    }
+
+    public TimestampedOrder decodeTimestamped(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        String name = getUtf8(buffer, buffer.getInt());
+        return timestampedBuilder.setName(name).setTimestamp(timestamp).build();
+    }
+
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void putUtf8(String s, ByteBuffer buffer) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                //lone surrogates are written as-is (3 bytes), like modified UTF-8
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private String getUtf8(ByteBuffer buffer, int length) {
+        if (length < 0) {
+            return null;
+        }
+        if (scratch.length < length) {
+            scratch = new char[Math.max(length, scratch.length * 2)];
+        }
+        int chars = decodeUtf8(buffer, buffer.position(), length, scratch);
+        buffer.position(buffer.position() + length);
+        return new String(scratch, 0, chars);
+    }
+
+    //decodes length bytes at index (absolute, the buffer's position is not touched) into out, which must hold
+    //at least length chars, and returns the number of chars written. The inverse of putUtf8, lone surrogates included
+    static int decodeUtf8(ByteBuffer buffer, int index, int length, char[] out) {
+        int chars = 0;
+        int end = index + length;
+        while (index < end) {
+            int b = buffer.get(index++) & 0xFF;
+            if (b < 0x80) {
+                out[chars++] = (char) b;
+            } else if (b < 0xE0) {
+                out[chars++] = (char) (((b & 0x1F) << 6) | (buffer.get(index++) & 0x3F));
+            } else if (b < 0xF0) {
+                out[chars++] = (char) (((b & 0x0F) << 12) | ((buffer.get(index++) & 0x3F) << 6)
+                        | (buffer.get(index++) & 0x3F));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((buffer.get(index++) & 0x3F) << 12)
+                        | ((buffer.get(index++) & 0x3F) << 6) | (buffer.get(index++) & 0x3F);
+                out[chars++] = Character.highSurrogate(codePoint);
+                out[chars++] = Character.lowSurrogate(codePoint);
+            }
+        }
+        return chars;
+    }
+}
+
+//reads an encoded order in place: no order object, no String unless getName() is called.
+//Names are decoded with OrderCodec's own decoder into a scratch array of the flyweight, so getName() and
+//nameEquals() read the bytes exactly as decodeImmutable() does; like the codec, one instance per thread
+final class OrderFlyweight {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private char[] scratch = new char[64];
+
+    public OrderFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset);
+    }
+
+    public boolean hasDate() {
+        return getTimestamp() != OrderCodec.NO_DATE;
+    }
+
+    //UTF-8 length of the name, -1 for a null name
+    public int nameLength() {
+        return buffer.getInt(offset + 8);
+    }
+
+    //compares ASCII names byte by byte; other names are decoded into the scratch array, never into a String
+    public boolean nameEquals(String name) {
+        int length = nameLength();
+        if (name == null || length < 0) {
+            return name == null && length < 0;
+        }
+        if (length != OrderCodec.utf8Length(name)) {
+            return false;
+        }
+        int start = offset + OrderCodec.HEADER_SIZE;
+        if (length != name.length()) {
+            int chars = decodeName(length);
+            if (chars != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < chars; i++) {
+                if (scratch[i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != (byte) name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getName() {
+        int length = nameLength();
+        if (length < 0) {
+            return null;
+        }
+        return new String(scratch, 0, decodeName(length));
+    }
+
+    private int decodeName(int length) {
+        if (scratch.length < length) {
+            scratch = new char[Math.max(length, scratch.length * 2)];
+        }
+        return OrderCodec.decodeUtf8(buffer, offset + OrderCodec.HEADER_SIZE, length, scratch);
+    }
+
+    //offset of the order that follows this one in the buffer
+    public int nextOffset() {
+        return offset + OrderCodec.HEADER_SIZE + Math.max(nameLength(), 0);
+    }
+}
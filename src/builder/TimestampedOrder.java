@@ -0,0 +1,89 @@
+package builder;
+
+import metrics.PatternMetrics;
+
+import java.util.Date;
+
+//immutable order that keeps its date as epoch millis instead of a java.util.Date:
+//nothing has to be cloned on the way in or out, and the order is just one object with a String and a long
+final class TimestampedOrder {
+
+    private static final ThreadLocal<Builder> THREAD_BUILDER = ThreadLocal.withInitial(Builder::new);
+
+    private final String name;
+    private final long timestamp;
+
+    private TimestampedOrder(String name, long timestamp) {
+        this.name = name;
+        this.timestamp = timestamp;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //one reusable builder per thread, for hot paths that build orders back to back
+    public static Builder threadLocalBuilder() {
+        return THREAD_BUILDER.get().reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //epoch millis
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    //for callers that still need a Date; allocates a new one on every call
+    public Date getDate() {
+        return new Date(timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "TimestampedOrder{" +
+                "name='" + name + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+
+    //mutable and reusable: build() copies the fields into a new order and leaves the builder as it was,
+    //reset() clears it for the next one. Build metrics time build()'s own work, not the caller's setters
+    public static final class Builder {
+
+        private String name;
+        private long timestamp;
+
+        private Builder(){ }
+
+        public Builder setName(String name){
+            this.name = name;
+            return this;
+        }
+
+        public Builder setTimestamp(long timestamp){
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder setDate(Date date){
+            this.timestamp = date.getTime();
+            return this;
+        }
+
+        public Builder reset(){
+            this.name = null;
+            this.timestamp = 0L;
+            return this;
+        }
+
+        public TimestampedOrder build(){
+            long start = PatternMetrics.start();
+            TimestampedOrder order = new TimestampedOrder(name, timestamp);
+            PatternMetrics.orderBuilt(start, "TimestampedOrder.Builder");
+            return order;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//virtual threads where the runtime has them (JDK 21+). The factory method is looked up reflectively, so
+//the code still compiles and runs on 17; callers that report what they ran can ask available()
+public final class VirtualThreads {
+
+    private static final Method NEW_EXECUTOR = lookup();
+
+    private VirtualThreads(){ }
+
+    public static boolean available() {
+        return NEW_EXECUTOR != null;
+    }
+
+    //one virtual thread per task, or a cached pool when virtual threads are not available
+    public static ExecutorService perTaskExecutor() {
+        if (NEW_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot create a virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package factory;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+//registry of chocolate kinds: a flag maps to a Supplier kept in an array indexed by the flag.
+//Lookups are one volatile read plus an array index, without locks; registrations copy the array
+//(copy-on-write), so they can happen at runtime while other threads keep looking kinds up.
+//Stateless products (like WhiteChocolate and DarkChocolate, whose only field is a constant price) are
+//registered as shared flyweights: "creating" one returns the same instance and allocates nothing.
+//Flags are small dense codes, 0..MAX_FLAG: the array is as long as the highest registered flag
+final class ChocolateRegistry {
+
+    //highest flag that can be registered; bounds the supplier array to a few KB
+    public static final int MAX_FLAG = 1023;
+
+    private static final ChocolateRegistry DEFAULT = new ChocolateRegistry()
+            .registerShared(0, new WhiteChocolate())
+            .registerShared(1, new DarkChocolate());
+
+    private volatile Supplier<? extends Chocolate>[] suppliers = newArray(0);
+
+    //the registry with the kinds ChocoFactory knows about; more can be registered on it
+    public static ChocolateRegistry defaultRegistry() {
+        return DEFAULT;
+    }
+
+    //a new instance per create()
+    public synchronized ChocolateRegistry register(int flag, Supplier<? extends Chocolate> supplier) {
+        if (flag < 0 || flag > MAX_FLAG) {
+            throw new IllegalArgumentException("flag must be between 0 and " + MAX_FLAG + ": " + flag);
+        }
+        Supplier<? extends Chocolate>[] next = Arrays.copyOf(suppliers, Math.max(suppliers.length, flag + 1));
+        next[flag] = supplier;
+        suppliers = next;
+        return this;
+    }
+
+    //the same instance for every create(); only for products without mutable state
+    public ChocolateRegistry registerShared(int flag, Chocolate flyweight) {
+        return register(flag, () -> flyweight);
+    }
+
+    public Supplier<? extends Chocolate> supplier(int flag) {
+        Supplier<? extends Chocolate>[] current = suppliers;
+        Supplier<? extends Chocolate> supplier = flag >= 0 && flag < current.length ? current[flag] : null;
+        if (supplier == null) {
+            throw new IllegalArgumentException("No chocolate registered for flag " + flag);
+        }
+        return supplier;
+    }
+
+    public Chocolate create(int flag) {
+        return supplier(flag).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<? extends Chocolate>[] newArray(int size) {
+        return (Supplier<? extends Chocolate>[]) new Supplier<?>[size];
+    }
+}
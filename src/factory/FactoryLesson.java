@@ -1,5 +1,14 @@
 package factory;
 
+import metrics.PatternMetrics;
+import output.Sinks;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /* Pattern: Factory
  * (Creational pattern)
  * ********************
@@ -40,7 +49,7 @@ class WhiteChocolate implements Chocolate{
     private final int price = 15;
 
     @Override
-    public void printPrice() { System.out.println("Price: " + this.price); }
+    public void printPrice() { Sinks.current().println("Price: " + this.price); }
 }
 
 class DarkChocolate implements Chocolate{
@@ -48,7 +57,7 @@ class DarkChocolate implements Chocolate{
     private final int price = 10;
 
     @Override
-    public void printPrice() { System.out.println("Price: " + this.price); }
+    public void printPrice() { Sinks.current().println("Price: " + this.price); }
 }
 
 //with the help of what we creating entities? - Factory
@@ -59,21 +68,138 @@ abstract class Factory{
     protected Factory(int flag){ this.flag = flag; }
     //method, that returns product
     abstract Chocolate create();
+
+    //bulk production: fills out[from, to) with products
+    void fill(Chocolate[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = create();
+        }
+    }
+
+    void fill(Chocolate[] out) {
+        fill(out, 0, out.length);
+    }
+
+    //sized stream of "count" products; it splits evenly, so it also works well as a parallel stream
+    Stream<Chocolate> stream(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        return StreamSupport.stream(new ProductSpliterator(this, 0, count), false);
+    }
 }
 
-//factory "implementation"
+//spliterator over "count" products of one factory, made lazily when traversed
+class ProductSpliterator implements Spliterator<Chocolate> {
+
+    private final Factory factory;
+    private long index;
+    private final long fence;
+
+    ProductSpliterator(Factory factory, long origin, long fence) {
+        this.factory = factory;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Chocolate> action) {
+        if (index >= fence) {
+            return false;
+        }
+        index++;
+        action.accept(factory.create());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Chocolate> action) {
+        for (long i = index; i < fence; i++) {
+            action.accept(factory.create());
+        }
+        index = fence;
+    }
+
+    @Override
+    public Spliterator<Chocolate> trySplit() {
+        long middle = (index + fence) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+        ProductSpliterator prefix = new ProductSpliterator(factory, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
+
+//factory "implementation": the product supplier for the flag is looked up in a ChocolateRegistry once,
+//when the factory is created, so create() is a single call. The default registry makes shared flyweights
+//for flags 0 and 1; kinds registered at runtime (or in another registry) are produced and batch-produced the same way
 class ChocoFactory extends Factory{
 
+    private final Supplier<? extends Chocolate> supplier;
+
     public ChocoFactory(int flag) {
+        this(flag, ChocolateRegistry.defaultRegistry());
+    }
+
+    public ChocoFactory(int flag, ChocolateRegistry registry) {
         super(flag);
+        this.supplier = registry.supplier(flag);
     }
 
     @Override
     Chocolate create() {
-        switch (flag){
-            case 0: return new WhiteChocolate();
-            case 1: return new DarkChocolate();
-            default: throw new IllegalArgumentException();
+        long start = PatternMetrics.start();
+        Chocolate chocolate = supplier.get();
+        PatternMetrics.chocolateCreated(start, flag);
+        return chocolate;
+    }
+
+    //one supplier and one metrics sample per batch instead of per product
+    @Override
+    void fill(Chocolate[] out, int from, int to) {
+        long start = PatternMetrics.start();
+        for (int i = from; i < to; i++) {
+            out[i] = supplier.get();
+        }
+        PatternMetrics.chocolatesCreated(start, flag, to - from);
+    }
+
+    //mixed-kind batch: out[i] gets the product for flags[i]. The supplier is resolved once per run of
+    //equal flags, so sorted or grouped flags cost about the same as fill()
+    static void createAll(int[] flags, Chocolate[] out) {
+        createAll(flags, out, ChocolateRegistry.defaultRegistry());
+    }
+
+    static void createAll(int[] flags, Chocolate[] out, ChocolateRegistry registry) {
+        if (out.length < flags.length) {
+            throw new IllegalArgumentException("output array is shorter than flags");
+        }
+        int i = 0;
+        while (i < flags.length) {
+            int flag = flags[i];
+            int end = i + 1;
+            while (end < flags.length && flags[end] == flag) {
+                end++;
+            }
+            long start = PatternMetrics.start();
+            Supplier<? extends Chocolate> supplier = registry.supplier(flag);
+            for (int j = i; j < end; j++) {
+                out[j] = supplier.get();
+            }
+            PatternMetrics.chocolatesCreated(start, flag, end - i);
+            i = end;
         }
     }
 }
@@ -0,0 +1,63 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//lock-free latency histogram with power-of-two buckets: bucket i counts durations in [2^(i-1), 2^i) ns.
+//Recording is one increment, so it is cheap enough for hot paths; percentiles are upper bucket bounds,
+//i.e. accurate to a factor of two
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        buckets.incrementAndGet(bucket(nanos));
+    }
+
+    //count operations that took nanos each, e.g. the average of a batch
+    public void record(long nanos, long count) {
+        buckets.addAndGet(bucket(nanos), count);
+    }
+
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    //upper bound in ns of the bucket holding the given percentile (0..100), 0 when nothing was recorded
+    public long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0 : (i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count() + ", p50<=" + percentile(50) + "ns, p99<=" + percentile(99)
+                + "ns, max<=" + percentile(100) + "ns";
+    }
+}
@@ -0,0 +1,70 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+//JDK Flight Recorder events for the pattern hot paths. They are committed when the call finishes and
+//carry the measured duration as a field. Like every JFR event they cost nothing beyond the
+//shouldCommit() check unless a recording has them enabled
+
+@Name("javapatterns.Notify")
+@Label("Observer Notification")
+@Category({"Java Patterns", "Observer"})
+@Description("ConcreteSubject.notifyObserver fan-out")
+class NotifyEvent extends Event {
+    @Label("Observer Count")
+    int observerCount;
+
+    @Label("Notify Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long notifyDuration;
+}
+
+@Name("javapatterns.FactoryLookup")
+@Label("GUI Factory Lookup")
+@Category({"Java Patterns", "Abstract Factory"})
+@Description("AbstractGUIFactory lookup by key")
+class FactoryLookupEvent extends Event {
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("Lookup Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long lookupDuration;
+}
+
+@Name("javapatterns.ChocolateCreate")
+@Label("Chocolate Creation")
+@Category({"Java Patterns", "Factory"})
+@Description("ChocoFactory.create, or a batch of products of one kind")
+class ChocolateCreateEvent extends Event {
+    @Label("Flag")
+    int flag;
+
+    @Label("Products")
+    int count;
+
+    @Label("Create Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long createDuration;
+}
+
+@Name("javapatterns.OrderBuild")
+@Label("Order Build")
+@Category({"Java Patterns", "Builder"})
+@Description("The work build() itself does to make an order")
+class OrderBuildEvent extends Event {
+    @Label("Builder")
+    String builder;
+
+    @Label("Build Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long buildDuration;
+}
@@ -0,0 +1,151 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//built-in instrumentation of the pattern hot paths: call counters, latency histograms and JFR events.
+//It is off unless started with -Djavapatterns.metrics=true or switched on with enable(). While off, an
+//instrumented call costs one volatile read in start() and one comparison in the matching finish method:
+//
+//    long start = PatternMetrics.start();
+//    ... the measured work ...
+//    PatternMetrics.chocolateCreated(start, flag);
+public final class PatternMetrics {
+
+    //start() result while instrumentation is off; the finish methods ignore it
+    public static final long OFF = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = Boolean.getBoolean("javapatterns.metrics");
+
+    public static final LatencyHistogram NOTIFY_LATENCY = new LatencyHistogram();
+    public static final LatencyHistogram FACTORY_LOOKUP_LATENCY = new LatencyHistogram();
+    public static final LatencyHistogram CHOCOLATE_CREATE_LATENCY = new LatencyHistogram();
+    public static final LatencyHistogram ORDER_BUILD_LATENCY = new LatencyHistogram();
+
+    private static final LongAdder NOTIFIED_OBSERVERS = new LongAdder();
+    private static final LongAdder FACTORY_LOOKUP_MISSES = new LongAdder();
+    private static final LongAdder ORDER_BUILDS = new LongAdder();
+
+    private PatternMetrics(){ }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : OFF;
+    }
+
+    public static void notified(long start, int observerCount) {
+        if (start == OFF) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        NOTIFY_LATENCY.record(nanos);
+        NOTIFIED_OBSERVERS.add(observerCount);
+        NotifyEvent event = new NotifyEvent();
+        if (event.shouldCommit()) {
+            event.observerCount = observerCount;
+            event.notifyDuration = nanos;
+            event.commit();
+        }
+    }
+
+    public static void factoryLookup(long start, String key, boolean hit) {
+        if (start == OFF) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        FACTORY_LOOKUP_LATENCY.record(nanos);
+        if (!hit) {
+            FACTORY_LOOKUP_MISSES.increment();
+        }
+        FactoryLookupEvent event = new FactoryLookupEvent();
+        if (event.shouldCommit()) {
+            event.key = key;
+            event.hit = hit;
+            event.lookupDuration = nanos;
+            event.commit();
+        }
+    }
+
+    public static void chocolateCreated(long start, int flag) {
+        chocolatesCreated(start, flag, 1);
+    }
+
+    //a batch of count products of one kind: the histogram gets count samples of the average per product,
+    //the JFR event the duration of the whole batch
+    public static void chocolatesCreated(long start, int flag, int count) {
+        if (start == OFF || count <= 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        CHOCOLATE_CREATE_LATENCY.record(nanos / count, count);
+        ChocolateCreateEvent event = new ChocolateCreateEvent();
+        if (event.shouldCommit()) {
+            event.flag = flag;
+            event.count = count;
+            event.createDuration = nanos;
+            event.commit();
+        }
+    }
+
+    //a build() that only hands out an object the setters already filled: counted, not timed
+    public static void orderBuilt() {
+        if (enabled) {
+            ORDER_BUILDS.increment();
+        }
+    }
+
+    //a build() that does work of its own, timed from start (taken inside build()) to here
+    public static void orderBuilt(long start, String builder) {
+        if (start == OFF) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        ORDER_BUILDS.increment();
+        ORDER_BUILD_LATENCY.record(nanos);
+        OrderBuildEvent event = new OrderBuildEvent();
+        if (event.shouldCommit()) {
+            event.builder = builder;
+            event.buildDuration = nanos;
+            event.commit();
+        }
+    }
+
+    public static long notifiedObservers() {
+        return NOTIFIED_OBSERVERS.sum();
+    }
+
+    public static long factoryLookupMisses() {
+        return FACTORY_LOOKUP_MISSES.sum();
+    }
+
+    public static long orderBuilds() {
+        return ORDER_BUILDS.sum();
+    }
+
+    public static void reset() {
+        NOTIFY_LATENCY.reset();
+        FACTORY_LOOKUP_LATENCY.reset();
+        CHOCOLATE_CREATE_LATENCY.reset();
+        ORDER_BUILD_LATENCY.reset();
+        NOTIFIED_OBSERVERS.reset();
+        FACTORY_LOOKUP_MISSES.reset();
+        ORDER_BUILDS.reset();
+    }
+
+    public static String report() {
+        return "notify: " + NOTIFY_LATENCY + ", observers notified=" + notifiedObservers() + "\n"
+                + "factory lookup: " + FACTORY_LOOKUP_LATENCY + ", misses=" + factoryLookupMisses() + "\n"
+                + "chocolate create: " + CHOCOLATE_CREATE_LATENCY + "\n"
+                + "order build: " + ORDER_BUILD_LATENCY + ", builds=" + orderBuilds();
+    }
+}
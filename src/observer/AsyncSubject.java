@@ -0,0 +1,149 @@
+package observer;
+
+import concurrent.VirtualThreads;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Subject that hands notifications to an executor instead of running update() on the setValue thread.
+//Every observer gets its own mailbox: at most one update per observer is queued or running at a time,
+//so observers keep their own ordering, and setValue calls that arrive while an update is pending
+//are folded into it - the observer then reads only the latest value (counted as "coalesced")
+class AsyncSubject implements Subject {
+
+    private final SnapshotRegistry<Mailbox> mailboxes = new SnapshotRegistry<>(new Mailbox[0]);
+    private final Executor executor;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private volatile int value;
+
+    public AsyncSubject(Executor executor) {
+        this.executor = executor;
+    }
+
+    //fixed pool with a bounded queue; when the queue is full the producer runs the update itself,
+    //which throttles it instead of growing the backlog
+    public static ExecutorService boundedPool(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    //one virtual thread per task on JDK 21+, a cached pool on older runtimes
+    public static ExecutorService virtualThreads() {
+        return VirtualThreads.perTaskExecutor();
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+        notifyObserver();
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    //number of update() calls actually made
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    //number of notifications that were merged into an already pending update
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void attach(Observer o) {
+        mailboxes.add(new Mailbox(o));
+    }
+
+    @Override
+    public void detach(Observer o) {
+        for (Mailbox mailbox : mailboxes.snapshot()) {
+            if (mailbox.observer.equals(o)) {
+                mailboxes.remove(mailbox);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void notifyObserver() {
+        Mailbox[] snapshot = mailboxes.snapshot();
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].signal();
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+
+        private final Observer observer;
+        //notifications not yet covered by an update(); the 0 -> 1 transition schedules the mailbox
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Mailbox(Observer observer) {
+            this.observer = observer;
+        }
+
+        void signal() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    pending.set(0);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int batch = pending.get();
+            do {
+                try {
+                    observer.update();
+                } catch (RuntimeException e) {
+                    Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                }
+                delivered.increment();
+                coalesced.add(batch - 1);
+                //anything signalled while update() ran is still pending and gets one more pass
+                batch = pending.addAndGet(-batch);
+            } while (batch != 0);
+        }
+    }
+}
+
+class AsyncSubjectDemo {
+
+    public static void main(String[] args) throws InterruptedException {
+        ExecutorService pool = AsyncSubject.boundedPool(2, 1024);
+        AsyncSubject subject = new AsyncSubject(pool);
+        subject.attach(() -> {
+            //slow observer, like ConcreteObserver2: it falls behind and skips intermediate values
+            sleep(1);
+            System.out.println("slow observer saw " + subject.getValue());
+        });
+        for (int i = 0; i < 1000; i++) {
+            subject.setValue(i);
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.println("delivered: " + subject.deliveredCount() + ", coalesced: " + subject.coalescedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
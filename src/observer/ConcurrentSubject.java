@@ -0,0 +1,96 @@
+package observer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+//thread-safe Subject: observers may attach/detach from any thread while setValue is running.
+//Observers are kept in an immutable array snapshot, every change publishes a new copy with CAS,
+//so notifyObserver only reads one reference and walks a plain array (no locks, no iterator)
+class ConcurrentSubject implements Subject {
+
+    private final SnapshotRegistry<Observer> observers = new SnapshotRegistry<>(new Observer[0]);
+    private volatile int value;
+
+    public void setValue(int value) {
+        this.value = value;
+        notifyObserver();
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int observerCount() {
+        return observers.snapshot().length;
+    }
+
+    @Override
+    public void attach(Observer o) {
+        observers.add(o);
+    }
+
+    @Override
+    public void detach(Observer o) {
+        observers.remove(o);
+    }
+
+    @Override
+    public void notifyObserver() {
+        //an observer detached after this read still gets the current notification, same as with a copy of the list
+        Observer[] snapshot = observers.snapshot();
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].update();
+        }
+    }
+}
+
+//copy-on-write array guarded by CAS; readers see a consistent snapshot that is never mutated.
+//Writes are O(n), so it suits registries that are read far more often than they change
+class SnapshotRegistry<T> {
+
+    private final AtomicReference<T[]> snapshot;
+
+    SnapshotRegistry(T[] empty) {
+        this.snapshot = new AtomicReference<>(empty);
+    }
+
+    public T[] snapshot() {
+        return snapshot.get();
+    }
+
+    public void add(T item) {
+        for (;;) {
+            T[] current = snapshot.get();
+            T[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = item;
+            if (snapshot.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    //removes the first occurrence, like List.remove(Object)
+    public boolean remove(T item) {
+        for (;;) {
+            T[] current = snapshot.get();
+            int index = indexOf(current, item);
+            if (index < 0) {
+                return false;
+            }
+            T[] next = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            if (snapshot.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static int indexOf(Object[] items, Object item) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].equals(item)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,6 +1,10 @@
 package observer;
 
+import metrics.PatternMetrics;
+import output.Sinks;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /* Pattern: Observer
@@ -60,13 +64,32 @@ interface Observer {
     void update();
 }
 
+//push-model observer: the subject passes the change itself, so there is no call back into getValue()
+//and no race with the next setValue. Primitive arguments keep the notification free of boxing
+interface IntObserver {
+    void onChange(int oldValue, int newValue);
+}
+
 class ConcreteSubject implements Subject {
     private List<Observer> observers = new ArrayList<Observer>();
+    private IntObserver[] intObservers = new IntObserver[0];
+    private RangeIndex rangeObservers;
     private int value;
 
     public void setValue(int value) {
+        long start = PatternMetrics.start();
+        int oldValue = this.value;
         this.value = value;
-        notifyObserver();
+        //the whole fan-out is one notify sample: Observer list, IntObservers and matching range observers
+        int notified = notifyObservers();
+        if (intObservers.length != 0) {
+            notifyIntObservers(oldValue, value);
+            notified += intObservers.length;
+        }
+        if (rangeObservers != null) {
+            notified += rangeObservers.notifyMatching(oldValue, value);
+        }
+        PatternMetrics.notified(start, notified);
     }
 
     public int getValue() {
@@ -83,10 +106,52 @@ class ConcreteSubject implements Subject {
         observers.remove(o);
     }
 
+    public void attach(IntObserver o) {
+        IntObserver[] next = Arrays.copyOf(intObservers, intObservers.length + 1);
+        next[intObservers.length] = o;
+        intObservers = next;
+    }
+
+    //notified only when the new value is within [from, to]; for a threshold use Integer.MAX_VALUE as "to"
+    public void attach(IntObserver o, int from, int to) {
+        if (rangeObservers == null) {
+            rangeObservers = new RangeIndex();
+        }
+        rangeObservers.add(o, from, to);
+    }
+
+    public void detach(IntObserver o) {
+        for (int i = 0; i < intObservers.length; i++) {
+            if (intObservers[i].equals(o)) {
+                IntObserver[] next = Arrays.copyOf(intObservers, intObservers.length - 1);
+                System.arraycopy(intObservers, i + 1, next, i, intObservers.length - i - 1);
+                intObservers = next;
+                return;
+            }
+        }
+        if (rangeObservers != null) {
+            rangeObservers.remove(o);
+        }
+    }
+
     @Override
     public void notifyObserver() {
-        for (Observer o : observers) {
-            o.update();
+        long start = PatternMetrics.start();
+        PatternMetrics.notified(start, notifyObservers());
+    }
+
+    private int notifyObservers() {
+        //indexed loop: no Iterator per notification
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).update();
+        }
+        return observers.size();
+    }
+
+    private void notifyIntObservers(int oldValue, int newValue) {
+        IntObserver[] snapshot = intObservers;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].onChange(oldValue, newValue);
         }
     }
 }
@@ -103,7 +168,7 @@ class ConcreteObserver1 implements Observer {
 
     @Override
     public void update() {
-        System.out.println(""+this.name+": notified about changes in Subject('value' changed to "+subject.getValue());
+        Sinks.current().println(""+this.name+": notified about changes in Subject('value' changed to "+subject.getValue());
     }
 
 }
@@ -124,6 +189,6 @@ class ConcreteObserver2 implements Observer {
         for (int i = 0; i < subject.getValue(); i++) {
             out += "*";
         }
-        System.out.println(""+this.name+": notified about changes in Subject('value' changed to "+subject.getValue());
+        Sinks.current().println(""+this.name+": notified about changes in Subject('value' changed to "+subject.getValue());
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package observer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//Subject for very large observer lists with CPU-heavy update(): notifyObserver splits the observer
+//snapshot into fork-join tasks. Lists up to "threshold" observers (and every leaf task) are notified
+//sequentially, so small subjects pay nothing for the parallel mode.
+//With Completion.AWAIT every observer has finished before setValue returns; with FIRE_AND_FORGET
+//setValue returns at once and a slow observer may already read a newer value from getValue().
+//In both modes an observer that throws is reported to the pool's uncaught exception handler, or the running
+//thread's when the pool has none - with FIRE_AND_FORGET nobody would ever look at the task - and the other
+//observers still run
+class ParallelSubject implements Subject {
+
+    enum Completion { AWAIT, FIRE_AND_FORGET }
+
+    private final SnapshotRegistry<Observer> observers = new SnapshotRegistry<>(new Observer[0]);
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final Completion completion;
+    private volatile int value;
+
+    public ParallelSubject(ForkJoinPool pool, int threshold, Completion completion) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.completion = completion;
+    }
+
+    public ParallelSubject(int threshold, Completion completion) {
+        this(ForkJoinPool.commonPool(), threshold, completion);
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+        notifyObserver();
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public void attach(Observer o) {
+        observers.add(o);
+    }
+
+    @Override
+    public void detach(Observer o) {
+        observers.remove(o);
+    }
+
+    @Override
+    public void notifyObserver() {
+        Observer[] snapshot = observers.snapshot();
+        Thread.UncaughtExceptionHandler handler = pool.getUncaughtExceptionHandler();
+        if (snapshot.length <= threshold && completion == Completion.AWAIT) {
+            notifyRange(snapshot, 0, snapshot.length, handler);
+            return;
+        }
+        NotifyTask task = new NotifyTask(snapshot, 0, snapshot.length, threshold, handler);
+        if (completion == Completion.AWAIT) {
+            pool.invoke(task);
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    //handler may be null: the running thread's own handler is used then
+    private static void notifyRange(Observer[] observers, int from, int to, Thread.UncaughtExceptionHandler handler) {
+        for (int i = from; i < to; i++) {
+            try {
+                observers[i].update();
+            } catch (RuntimeException e) {
+                Thread current = Thread.currentThread();
+                (handler != null ? handler : current.getUncaughtExceptionHandler()).uncaughtException(current, e);
+            }
+        }
+    }
+
+    private static final class NotifyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Observer[] observers;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Thread.UncaughtExceptionHandler handler;
+
+        private NotifyTask(Observer[] observers, int from, int to, int threshold,
+                           Thread.UncaughtExceptionHandler handler) {
+            this.observers = observers;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.handler = handler;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                notifyRange(observers, from, to, handler);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NotifyTask(observers, from, middle, threshold, handler),
+                    new NotifyTask(observers, middle, to, threshold, handler));
+        }
+    }
+}
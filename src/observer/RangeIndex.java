@@ -0,0 +1,149 @@
+package observer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//range subscriptions for push-model observers: an observer registered for [from, to] is only notified
+//when the new value falls inside that range (a threshold is just [threshold, Integer.MAX_VALUE]).
+//Subscriptions are kept in a centered interval tree, so a lookup costs O(log n + matches) instead of
+//testing every subscriber. The tree is rebuilt lazily on the first notification after attach/detach,
+//which suits subscriptions that change far less often than the value
+class RangeIndex {
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private Node root;
+    private boolean dirty;
+
+    public void add(IntObserver observer, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("empty range [" + from + ", " + to + "]");
+        }
+        subscriptions.add(new Subscription(observer, from, to));
+        dirty = true;
+    }
+
+    //removes the first subscription of the observer, returns false if it has none
+    public boolean remove(IntObserver observer) {
+        for (int i = 0; i < subscriptions.size(); i++) {
+            if (subscriptions.get(i).observer.equals(observer)) {
+                subscriptions.remove(i);
+                dirty = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    //returns the number of observers notified
+    public int notifyMatching(int oldValue, int newValue) {
+        if (dirty) {
+            root = build(subscriptions.toArray(new Subscription[0]));
+            dirty = false;
+        }
+        int notified = 0;
+        Node node = root;
+        while (node != null) {
+            if (newValue < node.center) {
+                //every interval here ends at or after the center, so only the start has to be checked
+                for (int i = 0; i < node.byFrom.length && node.froms[i] <= newValue; i++) {
+                    node.byFrom[i].onChange(oldValue, newValue);
+                    notified++;
+                }
+                node = node.left;
+            } else if (newValue > node.center) {
+                for (int i = 0; i < node.byTo.length && node.tos[i] >= newValue; i++) {
+                    node.byTo[i].onChange(oldValue, newValue);
+                    notified++;
+                }
+                node = node.right;
+            } else {
+                for (int i = 0; i < node.byFrom.length; i++) {
+                    node.byFrom[i].onChange(oldValue, newValue);
+                }
+                notified += node.byFrom.length;
+                node = null;
+            }
+        }
+        return notified;
+    }
+
+    private static Node build(Subscription[] items) {
+        if (items.length == 0) {
+            return null;
+        }
+        //median of the start points keeps the tree balanced for the usual "many small ranges" case
+        int[] froms = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            froms[i] = items[i].from;
+        }
+        Arrays.sort(froms);
+        int center = froms[froms.length / 2];
+
+        List<Subscription> left = new ArrayList<>();
+        List<Subscription> right = new ArrayList<>();
+        List<Subscription> overlapping = new ArrayList<>();
+        for (Subscription s : items) {
+            if (s.to < center) {
+                left.add(s);
+            } else if (s.from > center) {
+                right.add(s);
+            } else {
+                overlapping.add(s);
+            }
+        }
+
+        Node node = new Node(center, overlapping);
+        node.left = build(left.toArray(new Subscription[0]));
+        node.right = build(right.toArray(new Subscription[0]));
+        return node;
+    }
+
+    private static final class Subscription {
+        private final IntObserver observer;
+        private final int from;
+        private final int to;
+
+        private Subscription(IntObserver observer, int from, int to) {
+            this.observer = observer;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static final class Node {
+        private final int center;
+        //intervals containing the center, once sorted by start ascending and once by end descending
+        private final int[] froms;
+        private final IntObserver[] byFrom;
+        private final int[] tos;
+        private final IntObserver[] byTo;
+        private Node left;
+        private Node right;
+
+        private Node(int center, List<Subscription> overlapping) {
+            this.center = center;
+            int size = overlapping.size();
+            froms = new int[size];
+            byFrom = new IntObserver[size];
+            tos = new int[size];
+            byTo = new IntObserver[size];
+
+            overlapping.sort(Comparator.comparingInt(s -> s.from));
+            for (int i = 0; i < size; i++) {
+                froms[i] = overlapping.get(i).from;
+                byFrom[i] = overlapping.get(i).observer;
+            }
+            overlapping.sort(Comparator.comparingInt((Subscription s) -> s.to).reversed());
+            for (int i = 0; i < size; i++) {
+                tos[i] = overlapping.get(i).to;
+                byTo[i] = overlapping.get(i).observer;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package observer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//Disruptor-style single-producer / multi-consumer ring buffer in front of push-model observers.
+//Attached to a ConcreteSubject as an IntObserver, every setValue writes its old/new pair into a preallocated
+//slot (packed into one long) and publishes the slot's sequence; each consumer runs on its own thread and follows the producer
+//at its own sequence. A consumer that falls behind takes everything published so far in one batch and
+//publishes its progress once per batch. The producer only waits when the slowest consumer is a whole
+//ring behind.
+//Only one thread may call setValue (publish) at a time, and consumers are attached before start()
+class RingBufferDispatcher implements IntObserver {
+
+    //old value in the high 32 bits, new value in the low 32 bits
+    private final long[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    //sequence of the last published slot, written with release semantics after the slot itself
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private Consumer[] consumers = new Consumer[0];
+    private volatile boolean running;
+    private boolean started;
+
+    //producer-local state
+    private long nextSequence;
+    private long cachedGatingSequence = -1;
+    private int lastPublished;
+
+    public RingBufferDispatcher(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public void attach(IntObserver observer) {
+        if (started) {
+            throw new IllegalStateException("consumers must be attached before start()");
+        }
+        Consumer[] next = Arrays.copyOf(consumers, consumers.length + 1);
+        next[consumers.length] = new Consumer(observer, "ring-consumer-" + consumers.length);
+        consumers = next;
+    }
+
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("already started");
+        }
+        started = true;
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    //stops the consumers after they have drained everything published so far
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Consumer consumer : consumers) {
+            consumer.thread.join();
+        }
+    }
+
+    @Override
+    public void onChange(int oldValue, int newValue) {
+        publish(oldValue, newValue);
+    }
+
+    //publishes a change from the previously published value (0 before the first one)
+    public void publish(int value) {
+        publish(lastPublished, value);
+    }
+
+    public void publish(int oldValue, int newValue) {
+        long sequence = nextSequence++;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedGatingSequence) {
+            long minSequence;
+            int idle = 0;
+            while (wrapPoint > (minSequence = minimumConsumerSequence())) {
+                idle = waitStrategy.idle(idle);
+            }
+            cachedGatingSequence = minSequence;
+        }
+        slots[(int) sequence & mask] = ((long) oldValue << 32) | (newValue & 0xFFFFFFFFL);
+        lastPublished = newValue;
+        cursor.lazySet(sequence);
+    }
+
+    public long publishedSequence() {
+        return cursor.get();
+    }
+
+    private long minimumConsumerSequence() {
+        long min = cursor.get();
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.sequence.get());
+        }
+        return min;
+    }
+
+    private final class Consumer implements Runnable {
+
+        private final IntObserver observer;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+
+        private Consumer(IntObserver observer, String name) {
+            this.observer = observer;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idle = 0;
+            for (;;) {
+                long available = cursor.get();
+                if (available < next) {
+                    //re-read the cursor after seeing the stop flag, the last publish may have raced with it
+                    if (!running && cursor.get() < next) {
+                        return;
+                    }
+                    idle = waitStrategy.idle(idle);
+                    continue;
+                }
+                //catch up in bulk: every slot up to the cursor is already readable
+                for (long s = next; s <= available; s++) {
+                    long change = slots[(int) s & mask];
+                    //a failing observer must not stop its consumer: the sequence would never move again
+                    //and the producer would wait for it forever once the ring wraps
+                    try {
+                        observer.onChange((int) (change >>> 32), (int) change);
+                    } catch (RuntimeException e) {
+                        Thread current = Thread.currentThread();
+                        current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                    }
+                }
+                sequence.lazySet(available);
+                next = available + 1;
+                idle = 0;
+            }
+        }
+    }
+}
+
+//how a thread waits for the other side of the ring; each call gets the number of idle rounds so far
+//and returns the next one
+enum WaitStrategy {
+
+    //lowest latency, burns a core per waiting thread
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter + 1;
+        }
+    },
+    //spins briefly, then gives the core to other runnable threads
+    YIELD {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+    },
+    //spins, yields, then sleeps in short parks; cheapest on CPU, highest wake-up latency
+    PARK {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            return counter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    abstract int idle(int counter);
+}
@@ -0,0 +1,194 @@
+package observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//durable, replayable history of a ConcreteSubject. Attached as an IntObserver, every setValue appends
+//a fixed-width record (sequence, timestamp millis, value) to a memory-mapped segment file, so an append
+//is three stores into the page cache - no write() per event. A segment holds a fixed number of records;
+//when it is full the journal maps the next file, named after its first sequence.
+//A record with timestamp 0 marks the end of the data (new segments are zero-filled), which is how the
+//journal finds its position again when it is reopened. The segment size is not stored in the files, so a
+//journal must be reopened with the segment size it was written with; any other size is rejected.
+//Written records survive a crash of the JVM; call flush() to force them to the device as well
+class SubjectJournal implements IntObserver, AutoCloseable {
+
+    static final int RECORD_SIZE = 24;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int VALUE_OFFSET = 16;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private MappedByteBuffer segment;
+    private long segmentFirstSequence;
+    private long nextSequence;
+
+    public SubjectJournal(Path directory, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment < 1 || (long) recordsPerSegment * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bad segment size: " + recordsPerSegment);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.recordsPerSegment = recordsPerSegment;
+        List<Long> segments = segments();
+        long segmentBytes = (long) recordsPerSegment * RECORD_SIZE;
+        for (long first : segments) {
+            //mapping a segment with a different size would read or zero-fill records at the wrong offsets
+            long size = Files.size(segmentPath(first));
+            if (size != segmentBytes || first % recordsPerSegment != 0) {
+                throw new IllegalArgumentException("segment " + segmentPath(first) + " (" + size
+                        + " bytes) was not written with " + recordsPerSegment + " records per segment");
+            }
+        }
+        if (segments.isEmpty()) {
+            map(0);
+        } else {
+            map(segments.get(segments.size() - 1));
+            int records = countRecords(segment);
+            nextSequence = segmentFirstSequence + records;
+            if (records == recordsPerSegment) {
+                map(nextSequence);
+            }
+        }
+    }
+
+    @Override
+    public void onChange(int oldValue, int newValue) {
+        append(newValue);
+    }
+
+    public long append(int value) {
+        long sequence = nextSequence;
+        int slot = (int) (sequence - segmentFirstSequence);
+        if (slot == recordsPerSegment) {
+            roll(sequence);
+            slot = 0;
+        }
+        int offset = slot * RECORD_SIZE;
+        segment.putLong(offset + SEQUENCE_OFFSET, sequence);
+        segment.putInt(offset + VALUE_OFFSET, value);
+        //timestamp last: a non-zero timestamp means the record is complete
+        segment.putLong(offset + TIMESTAMP_OFFSET, System.currentTimeMillis());
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    //sequence the next append will get; also the number of records written so far
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    public void flush() {
+        segment.force();
+    }
+
+    //streams every record from "fromSequence" up to the current end into the observer, oldest first.
+    //The first oldValue is the value of the record before "fromSequence" (0 when replaying from the start);
+    //a negative "fromSequence" replays from the start
+    public long replay(long fromSequence, IntObserver observer) throws IOException {
+        fromSequence = Math.max(0, fromSequence);
+        long end = nextSequence;
+        long sequence = Math.max(0, fromSequence - 1);
+        boolean primed = sequence == fromSequence;
+        int previous = 0;
+        long delivered = 0;
+        List<Long> segments = segments();
+        for (int i = 0; i < segments.size() && sequence < end; i++) {
+            long first = segments.get(i);
+            long last = Math.min(first + recordsPerSegment, end);
+            if (last <= sequence) {
+                continue;
+            }
+            MappedByteBuffer buffer = first == segmentFirstSequence ? segment : mapReadOnly(first);
+            for (; sequence < last; sequence++) {
+                int value = buffer.getInt((int) (sequence - first) * RECORD_SIZE + VALUE_OFFSET);
+                if (primed) {
+                    observer.onChange(previous, value);
+                    delivered++;
+                }
+                previous = value;
+                primed = true;
+            }
+        }
+        return delivered;
+    }
+
+    //replays history into a new observer and then attaches it, so it sees every value from "fromSequence" on
+    public long replayAndAttach(ConcreteSubject subject, long fromSequence, IntObserver observer) throws IOException {
+        long delivered = replay(fromSequence, observer);
+        subject.attach(observer);
+        return delivered;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void roll(long firstSequence) {
+        try {
+            map(firstSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot roll journal segment", e);
+        }
+    }
+
+    private void map(long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        }
+        segment.order(ByteOrder.nativeOrder());
+        segmentFirstSequence = firstSequence;
+    }
+
+    private MappedByteBuffer mapReadOnly(long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(firstSequence), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            return buffer;
+        }
+    }
+
+    private int countRecords(MappedByteBuffer buffer) {
+        //records are written in order, so the first empty slot ends the data
+        int low = 0;
+        int high = recordsPerSegment;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(middle * RECORD_SIZE + TIMESTAMP_OFFSET) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d", firstSequence) + SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,296 @@
+package observer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//java.util.concurrent.Flow adapter over ConcreteSubject: every setValue becomes an onNext for each subscriber,
+//but only as fast as the subscriber requests. Values waiting for demand sit in a bounded per-subscriber buffer
+//(primitive ints, boxed only at onNext), and what happens when that buffer is full is the OverflowPolicy.
+//Signals to one subscriber are delivered on the executor, one at a time and in order
+class SubjectPublisher implements Flow.Publisher<Integer>, IntObserver, AutoCloseable {
+
+    enum OverflowPolicy {
+        //discard the oldest buffered value to make room, subscribers always get the most recent values
+        DROP_OLDEST,
+        //discard the new value, subscribers get the values that were buffered first
+        DROP_LATEST,
+        //make setValue wait until the subscriber has consumed enough; nothing is lost, the producer slows down
+        BLOCK
+    }
+
+    private final ConcreteSubject subject;
+    private final int bufferCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final SnapshotRegistry<BufferedSubscription> subscriptions =
+            new SnapshotRegistry<>(new BufferedSubscription[0]);
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    public SubjectPublisher(ConcreteSubject subject, int bufferCapacity, OverflowPolicy overflowPolicy,
+                            Executor executor) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("buffer capacity must be positive: " + bufferCapacity);
+        }
+        this.subject = subject;
+        this.bufferCapacity = bufferCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        subject.attach(this);
+    }
+
+    public SubjectPublisher(ConcreteSubject subject, int bufferCapacity, OverflowPolicy overflowPolicy) {
+        this(subject, bufferCapacity, overflowPolicy, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        BufferedSubscription subscription = new BufferedSubscription(subscriber);
+        //onSubscribe holds the drain loop and the subscription is published to onChange only afterwards,
+        //so no onNext/onError/onComplete can overlap it; requests made inside it are drained on release
+        subscription.wip.set(1);
+        subscriber.onSubscribe(subscription);
+        if (!subscription.cancelled) {
+            subscriptions.add(subscription);
+            if (subscription.cancelled) {
+                subscriptions.remove(subscription);
+            } else if (closed) {
+                subscription.complete();
+            }
+        }
+        subscription.release();
+    }
+
+    @Override
+    public void onChange(int oldValue, int newValue) {
+        BufferedSubscription[] snapshot = subscriptions.snapshot();
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].offer(newValue);
+        }
+    }
+
+    //values dropped by the overflow policy over all subscribers
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    //detaches from the subject; subscribers get onComplete once their buffers are drained
+    @Override
+    public void close() {
+        closed = true;
+        subject.detach(this);
+        for (BufferedSubscription subscription : subscriptions.snapshot()) {
+            subscription.complete();
+        }
+    }
+
+    private final class BufferedSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Integer> subscriber;
+        private final int[] buffer = new int[bufferCapacity];
+        private final AtomicLong requested = new AtomicLong();
+        //drain-loop guard: the thread that moves it from 0 owns delivery until it drops back to 0
+        private final AtomicInteger wip = new AtomicInteger();
+        //guarded by "this"
+        private int head;
+        private int size;
+        private boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        private BufferedSubscription(Flow.Subscriber<? super Integer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(int value) {
+            synchronized (this) {
+                if (cancelled || completed) {
+                    return;
+                }
+                if (size == buffer.length) {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            head = (head + 1) % buffer.length;
+                            size--;
+                            dropped.increment();
+                            break;
+                        case DROP_LATEST:
+                            dropped.increment();
+                            return;
+                        case BLOCK:
+                            //close() wakes the producer too: a completed subscription takes no more values
+                            while (size == buffer.length && !cancelled && !completed) {
+                                try {
+                                    wait();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    dropped.increment();
+                                    return;
+                                }
+                            }
+                            if (cancelled) {
+                                return;
+                            }
+                            if (completed) {
+                                dropped.increment();
+                                return;
+                            }
+                            break;
+                    }
+                }
+                buffer[(head + size) % buffer.length] = value;
+                size++;
+            }
+            schedule();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+                notifyAll();
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                long current;
+                do {
+                    current = requested.get();
+                } while (!requested.compareAndSet(current, addCapped(current, n)));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        //gives up a hold taken on the drain loop, running whatever was signalled meanwhile
+        private void release() {
+            if (wip.decrementAndGet() != 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            for (;;) {
+                if (cancelled) {
+                    return;
+                }
+                Throwable failure = error;
+                if (failure != null) {
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+                int value;
+                boolean finished = false;
+                synchronized (this) {
+                    if (size == 0) {
+                        if (!completed) {
+                            return;
+                        }
+                        finished = true;
+                        value = 0;
+                    } else if (requested.get() == 0) {
+                        return;
+                    } else {
+                        value = buffer[head];
+                        head = (head + 1) % buffer.length;
+                        size--;
+                        notifyAll();
+                    }
+                }
+                if (finished) {
+                    cancel();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (requested.get() != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+                subscriber.onNext(value);
+            }
+        }
+    }
+
+    private static long addCapped(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
+
+class SubjectPublisherDemo {
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcreteSubject subject = new ConcreteSubject();
+        SubjectPublisher publisher = new SubjectPublisher(subject, 16, SubjectPublisher.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<Integer>() {
+            private Flow.Subscription subscription;
+            private int received;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received++;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throwable.printStackTrace();
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println("subscriber received " + received + " values");
+                done.countDown();
+            }
+        });
+        for (int i = 0; i < 100_000; i++) {
+            subject.setValue(i);
+        }
+        publisher.close();
+        done.await();
+        System.out.println("dropped by overflow policy: " + publisher.droppedCount());
+    }
+}
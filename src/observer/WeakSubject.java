@@ -0,0 +1,179 @@
+package observer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Subject that holds its observers weakly: an observer nobody else references any more is collected
+//instead of being kept alive by the subject. Collected entries are reported by the GC through a
+//ReferenceQueue; notifyObserver only polls that queue (no scan) and compacts the observer array once
+//enough entries have been cleared, so the cost of purging is spread over many notifications.
+//Observers must be referenced elsewhere for as long as they should be notified - a lambda passed
+//straight to attach() is collected on the next GC
+class WeakSubject implements Subject {
+
+    //compact once the dead entries are an eighth of the array and at least this many: every O(n) compaction
+    //then pays for at least n/8 cleared entries, and a small registry carries at most this many dead ones
+    private static final int PURGE_BATCH = 64;
+
+    private final ReferenceQueue<Observer> queue = new ReferenceQueue<>();
+    private final AtomicReference<ObserverRef[]> observers = new AtomicReference<>(new ObserverRef[0]);
+    private final AtomicInteger cleared = new AtomicInteger();
+    private final AtomicLong purged = new AtomicLong();
+    private volatile int value;
+
+    public void setValue(int value) {
+        this.value = value;
+        notifyObserver();
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    //entries whose observer has not been collected yet (includes ones cleared but not yet reported)
+    public int liveCount() {
+        return observers.get().length - cleared.get();
+    }
+
+    //entries removed from the array since the subject was created
+    public long purgedCount() {
+        return purged.get();
+    }
+
+    @Override
+    public void attach(Observer o) {
+        expungeStaleEntries();
+        ObserverRef ref = new ObserverRef(o, queue);
+        for (;;) {
+            ObserverRef[] current = observers.get();
+            ObserverRef[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = ref;
+            if (observers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void detach(Observer o) {
+        for (;;) {
+            ObserverRef[] current = observers.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (o.equals(current[i].get())) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            ObserverRef[] next = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            if (observers.compareAndSet(current, next)) {
+                current[index].markRemoved();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void notifyObserver() {
+        expungeStaleEntries();
+        ObserverRef[] snapshot = observers.get();
+        for (int i = 0; i < snapshot.length; i++) {
+            Observer o = snapshot[i].get();
+            if (o != null) {
+                o.update();
+            }
+        }
+    }
+
+    private void expungeStaleEntries() {
+        ObserverRef ref;
+        while ((ref = (ObserverRef) queue.poll()) != null) {
+            //entries already dropped from the array by detach or an earlier compaction are not counted again
+            if (ref.state.compareAndSet(ObserverRef.LIVE, ObserverRef.CLEARED)) {
+                cleared.incrementAndGet();
+            }
+        }
+        int dead = cleared.get();
+        if (dead >= Math.max(PURGE_BATCH, observers.get().length >>> 3)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        for (;;) {
+            ObserverRef[] current = observers.get();
+            ObserverRef[] next = new ObserverRef[current.length];
+            //the entries left out of next, so the ones marked below are exactly the ones the array lost:
+            //checking get() again after the CAS would also catch refs cleared since, which are still in it
+            ObserverRef[] dropped = new ObserverRef[current.length];
+            int size = 0;
+            int removed = 0;
+            for (ObserverRef ref : current) {
+                if (ref.get() != null) {
+                    next[size++] = ref;
+                } else {
+                    dropped[removed++] = ref;
+                }
+            }
+            if (observers.compareAndSet(current, Arrays.copyOf(next, size))) {
+                for (int i = 0; i < removed; i++) {
+                    dropped[i].markRemoved();
+                }
+                purged.addAndGet(removed);
+                return;
+            }
+        }
+    }
+
+    private final class ObserverRef extends WeakReference<Observer> {
+
+        private static final int LIVE = 0;
+        private static final int CLEARED = 1;
+        private static final int REMOVED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(LIVE);
+
+        private ObserverRef(Observer referent, ReferenceQueue<Observer> queue) {
+            super(referent, queue);
+        }
+
+        void markRemoved() {
+            if (state.getAndSet(REMOVED) == CLEARED) {
+                cleared.decrementAndGet();
+            }
+        }
+    }
+}
+
+//attaches observers that are dropped right away and checks that the subject does not keep them
+class WeakSubjectDemo {
+
+    public static void main(String[] args) throws InterruptedException {
+        WeakSubject subject = new WeakSubject();
+        Observer kept = () -> { };
+        subject.attach(kept);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100_000; i++) {
+                final int[] payload = new int[16];
+                subject.attach(() -> payload[0]++);
+            }
+            System.gc();
+            Thread.sleep(100);
+            for (int i = 0; i < 1_000; i++) {
+                subject.setValue(i);
+            }
+            Runtime runtime = Runtime.getRuntime();
+            System.out.println("round " + round + ": live " + subject.liveCount() + ", purged " + subject.purgedCount()
+                    + ", used heap " + ((runtime.totalMemory() - runtime.freeMemory()) >> 20) + " MB");
+        }
+        subject.detach(kept);
+    }
+}
@@ -0,0 +1,135 @@
+package output;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//asynchronous sink: callers only put the line into a bounded queue, a single writer thread takes lines
+//off in batches, joins them and hands each batch to the target in one print() - one lock and one flush per
+//batch instead of per line. A full queue makes callers wait, so memory stays bounded and nothing is lost:
+//an interrupt does not abort println (it is restored once the line is queued), and lines queued while
+//close() stops the writer are written by close() itself
+public final class AsyncBatchSink implements Sink, AutoCloseable {
+
+    private static final int MAX_BATCH = 4096;
+
+    private final BlockingQueue<String> queue;
+    private final PrintStream target;
+    private final Thread writer;
+    private final AtomicLong enqueued = new AtomicLong();
+    //println calls past the closed check that may not have queued their line yet
+    private final AtomicInteger producers = new AtomicInteger();
+    private volatile long written;
+    private volatile boolean closed;
+
+    public AsyncBatchSink(PrintStream target, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.target = target;
+        this.writer = new Thread(this::writeLoop, "async-batch-sink");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public AsyncBatchSink(int capacity) {
+        this(System.out, capacity);
+    }
+
+    @Override
+    public void println(String line) {
+        //announced before the closed check, so close() either sees this call or this call sees closed
+        producers.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("sink is closed");
+            }
+            boolean interrupted = false;
+            for (;;) {
+                try {
+                    queue.put(line);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            enqueued.incrementAndGet();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            producers.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void flush() {
+        long expected = enqueued.get();
+        while (written < expected && writer.isAlive()) {
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    //writes what is queued, then stops the writer thread
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            writer.interrupt();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        //println calls that passed the closed check just before it was set may still be queueing
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder chunk = new StringBuilder();
+        while (producers.get() != 0 || !queue.isEmpty()) {
+            if (queue.drainTo(batch, MAX_BATCH) == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            write(batch, chunk);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder chunk = new StringBuilder(64 * 1024);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                //close() interrupts to wake the writer up; the loop condition decides whether to stop
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            write(batch, chunk);
+        }
+    }
+
+    private void write(List<String> batch, StringBuilder chunk) {
+        for (String line : batch) {
+            chunk.append(line).append(System.lineSeparator());
+        }
+        target.print(chunk);
+        target.flush();
+        written += batch.size();
+        batch.clear();
+        chunk.setLength(0);
+    }
+}
@@ -0,0 +1,11 @@
+package output;
+
+//where products and observers write their messages. Lesson code prints through Sinks.current(),
+//so the destination can be swapped (buffered, asynchronous, discarded) without touching the patterns
+public interface Sink {
+
+    void println(String line);
+
+    //blocks until everything written so far has reached the destination
+    void flush();
+}
@@ -0,0 +1,49 @@
+package output;
+
+//the sink used by lesson code, plus the simple implementations
+public final class Sinks {
+
+    //System.out is looked up on every call, so System.setOut still redirects this sink
+    private static final Sink STDOUT = new Sink() {
+        @Override
+        public void println(String line) { System.out.println(line); }
+
+        @Override
+        public void flush() { System.out.flush(); }
+    };
+
+    //discards everything; for measuring the code around the output
+    private static final Sink NOOP = new Sink() {
+        @Override
+        public void println(String line) { }
+
+        @Override
+        public void flush() { }
+    };
+
+    private static volatile Sink current = STDOUT;
+
+    private Sinks(){ }
+
+    public static Sink stdout() {
+        return STDOUT;
+    }
+
+    public static Sink noop() {
+        return NOOP;
+    }
+
+    public static Sink current() {
+        return current;
+    }
+
+    //returns the sink that was installed before, so callers can restore it
+    public static Sink install(Sink sink) {
+        if (sink == null) {
+            throw new NullPointerException("sink");
+        }
+        Sink previous = current;
+        current = sink;
+        return previous;
+    }
+}
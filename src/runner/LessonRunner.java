@@ -0,0 +1,332 @@
+package runner;
+
+import concurrent.VirtualThreads;
+import output.Sink;
+import output.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+//runs the lessons - every public *Lesson class with a public no-arg main() - once cold and then a number
+//of times warm, either one after another or all at once on an executor. Each run's output is captured
+//per thread, so lessons running concurrently do not interleave; the output of the cold run is kept
+public final class LessonRunner {
+
+    private final List<Class<?>> lessons;
+    private final ExecutorService executor;
+    private final int warmRuns;
+
+    //executor == null runs the lessons sequentially on the calling thread
+    public LessonRunner(List<Class<?>> lessons, ExecutorService executor, int warmRuns) {
+        if (warmRuns < 0) {
+            throw new IllegalArgumentException("warmRuns must not be negative");
+        }
+        this.lessons = new ArrayList<>(lessons);
+        this.executor = executor;
+        this.warmRuns = warmRuns;
+    }
+
+    //"sequential" (null), "fixed" or "fixed:<threads>", "cached", "virtual"
+    public static ExecutorService executor(String spec) {
+        if (spec.equals("sequential")) {
+            return null;
+        }
+        if (spec.equals("cached")) {
+            return Executors.newCachedThreadPool();
+        }
+        if (spec.equals("virtual")) {
+            return VirtualThreads.perTaskExecutor();
+        }
+        if (spec.equals("fixed")) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+        if (spec.startsWith("fixed:")) {
+            return Executors.newFixedThreadPool(Integer.parseInt(spec.substring("fixed:".length())));
+        }
+        throw new IllegalArgumentException("Unknown executor: " + spec);
+    }
+
+    //what executor(spec) actually runs, for the report: "virtual" falls back to a cached pool before JDK 21
+    public static String executorName(String spec) {
+        if (spec.equals("virtual") && !VirtualThreads.available()) {
+            return "cached (virtual threads are not available on Java " + Runtime.version().feature() + ")";
+        }
+        if (spec.equals("fixed")) {
+            return "fixed:" + Runtime.getRuntime().availableProcessors();
+        }
+        return spec;
+    }
+
+    //lesson classes found next to this class, in a classes directory or a jar, sorted by name.
+    //Classes are loaded without being initialized, so discovery runs no lesson code
+    public static List<Class<?>> discover() throws IOException {
+        Path location;
+        try {
+            location = Paths.get(LessonRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        List<String> classNames = new ArrayList<>();
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.walk(location)) {
+                files.map(file -> location.relativize(file).toString().replace(location.getFileSystem().getSeparator(), "/"))
+                        .filter(LessonRunner::isLessonClassFile)
+                        .forEach(name -> classNames.add(toClassName(name)));
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (isLessonClassFile(name)) {
+                        classNames.add(toClassName(name));
+                    }
+                }
+            }
+        }
+        List<Class<?>> lessons = new ArrayList<>();
+        ClassLoader loader = LessonRunner.class.getClassLoader();
+        for (String className : classNames) {
+            try {
+                Class<?> type = Class.forName(className, false, loader);
+                if (isLesson(type)) {
+                    lessons.add(type);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        }
+        lessons.sort(Comparator.comparing(Class::getName));
+        return lessons;
+    }
+
+    private static boolean isLessonClassFile(String name) {
+        return name.endsWith("Lesson.class") && name.indexOf('$') < 0;
+    }
+
+    private static String toClassName(String classFile) {
+        return classFile.substring(0, classFile.length() - ".class".length()).replace('/', '.');
+    }
+
+    private static boolean isLesson(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        try {
+            type.getConstructor();
+            Method main = type.getMethod("main");
+            return !Modifier.isStatic(main.getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public List<LessonResult> run() throws InterruptedException {
+        PrintStream console = System.out;
+        ThreadOutput output = new ThreadOutput(console);
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        //lesson code writing through Sinks lands in System.out as well, and with it in the capture
+        Sink previous = Sinks.install(Sinks.stdout());
+        try {
+            List<LessonResult> results = new ArrayList<>();
+            if (executor == null) {
+                for (Class<?> lesson : lessons) {
+                    results.add(runLesson(lesson, output));
+                }
+                return results;
+            }
+            List<Future<LessonResult>> futures = new ArrayList<>();
+            for (Class<?> lesson : lessons) {
+                futures.add(executor.submit(() -> runLesson(lesson, output)));
+            }
+            for (Future<LessonResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Lesson runner failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            Sinks.install(previous);
+            System.setOut(console);
+        }
+    }
+
+    private LessonResult runLesson(Class<?> lesson, ThreadOutput output) {
+        output.begin();
+        long start = System.nanoTime();
+        Throwable coldFailure = runOnce(lesson);
+        long cold = System.nanoTime() - start;
+        String coldOutput = output.end();
+
+        long[] warm = new long[warmRuns];
+        int warmFailures = 0;
+        for (int i = 0; i < warmRuns; i++) {
+            output.begin();
+            start = System.nanoTime();
+            if (runOnce(lesson) != null) {
+                warmFailures++;
+            }
+            warm[i] = System.nanoTime() - start;
+            output.end();
+        }
+        return new LessonResult(lesson.getSimpleName(), cold, warm, coldOutput, coldFailure, warmFailures);
+    }
+
+    //null when main() returned normally; lessons may throw on purpose (AbstractFactoryLesson picks an
+    //unknown OS now and then), which is reported but does not stop the run
+    private static Throwable runOnce(Class<?> lesson) {
+        try {
+            Object instance = lesson.getConstructor().newInstance();
+            lesson.getMethod("main").invoke(instance);
+            return null;
+        } catch (InvocationTargetException e) {
+            return e.getCause();
+        } catch (ReflectiveOperationException e) {
+            return e;
+        }
+    }
+
+    //"executor" is the executorName() of the executor the results were measured on
+    public static String report(String executor, List<LessonResult> results) {
+        StringBuilder report = new StringBuilder("executor: ").append(executor).append('\n');
+        for (LessonResult result : results) {
+            report.append(String.format("%-22s cold %9.3f ms", result.name(), result.coldNanos() / 1e6));
+            if (result.warmNanos().length != 0) {
+                report.append(String.format(", warm median %9.3f ms, min %9.3f ms (%d runs, %.0fx faster)",
+                        result.warmMedianNanos() / 1e6, result.warmMinNanos() / 1e6, result.warmNanos().length,
+                        (double) result.coldNanos() / Math.max(1, result.warmMedianNanos())));
+            }
+            if (result.warmFailures() != 0) {
+                report.append(", ").append(result.warmFailures()).append(" warm runs threw");
+            }
+            report.append('\n');
+        }
+        return report.toString();
+    }
+
+    public static final class LessonResult {
+
+        private final String name;
+        private final long coldNanos;
+        private final long[] warmNanos;
+        private final String output;
+        private final Throwable coldFailure;
+        private final int warmFailures;
+
+        LessonResult(String name, long coldNanos, long[] warmNanos, String output, Throwable coldFailure, int warmFailures) {
+            this.name = name;
+            this.coldNanos = coldNanos;
+            this.warmNanos = warmNanos;
+            this.output = output;
+            this.coldFailure = coldFailure;
+            this.warmFailures = warmFailures;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long coldNanos() {
+            return coldNanos;
+        }
+
+        public long[] warmNanos() {
+            return warmNanos.clone();
+        }
+
+        public long warmMedianNanos() {
+            if (warmNanos.length == 0) {
+                return 0;
+            }
+            long[] sorted = warmNanos.clone();
+            Arrays.sort(sorted);
+            return sorted[sorted.length / 2];
+        }
+
+        public long warmMinNanos() {
+            return warmNanos.length == 0 ? 0 : Arrays.stream(warmNanos).min().getAsLong();
+        }
+
+        //what the cold run printed
+        public String output() {
+            return output;
+        }
+
+        //what the cold run threw, or null
+        public Throwable coldFailure() {
+            return coldFailure;
+        }
+
+        public int warmFailures() {
+            return warmFailures;
+        }
+    }
+}
+
+//System.out replacement that sends each thread's bytes to that thread's capture buffer while it has one,
+//and to the console otherwise
+final class ThreadOutput extends OutputStream {
+
+    private final PrintStream console;
+    private final ThreadLocal<ByteArrayOutputStream> capture = new ThreadLocal<>();
+
+    ThreadOutput(PrintStream console) {
+        this.console = console;
+    }
+
+    void begin() {
+        capture.set(new ByteArrayOutputStream());
+    }
+
+    String end() {
+        ByteArrayOutputStream buffer = capture.get();
+        capture.remove();
+        return buffer == null ? "" : buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private OutputStream target() {
+        ByteArrayOutputStream buffer = capture.get();
+        return buffer != null ? buffer : console;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        target().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        target().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (capture.get() == null) {
+            console.flush();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//AppCDS training run and startup comparison. A child JVM runs every lesson once with
+//-XX:ArchiveClassesAtExit, which dumps the classes it loaded into a dynamic archive; then child JVMs are
+//started alternately with and without -XX:SharedArchiveFile and their wall-clock time is compared.
+//CDS only archives classes from jars, so this needs the packaged lessons jar on the class path
+public final class StartupComparison {
+
+    private final Path archive;
+    private final int runs;
+    private final String javaLauncher = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    private final String classPath = System.getProperty("java.class.path");
+
+    public StartupComparison(Path archive, int runs) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("runs must be positive");
+        }
+        this.archive = archive;
+        this.runs = runs;
+    }
+
+    public boolean supported() {
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (!entry.endsWith(".jar")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String compare(String mainClass, String... mainArgs) throws IOException, InterruptedException {
+        if (!supported()) {
+            return "AppCDS archives classes from jars only; run from the lessons jar (class path: " + classPath + ")";
+        }
+        Files.deleteIfExists(archive);
+        long training = launch(List.of("-XX:ArchiveClassesAtExit=" + archive), mainClass, mainArgs);
+        if (!Files.exists(archive)) {
+            return "training run did not produce " + archive;
+        }
+        long[] plain = new long[runs];
+        long[] shared = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            plain[i] = launch(List.of(), mainClass, mainArgs);
+            shared[i] = launch(List.of("-XX:SharedArchiveFile=" + archive), mainClass, mainArgs);
+        }
+        return String.format("training run %.1f ms, archive %s (%d KB)%n"
+                        + "startup without archive: median %.1f ms, min %.1f ms%n"
+                        + "startup with archive:    median %.1f ms, min %.1f ms (%d runs each)",
+                training / 1e6, archive, Files.size(archive) / 1024,
+                median(plain) / 1e6, min(plain) / 1e6, median(shared) / 1e6, min(shared) / 1e6, runs);
+    }
+
+    //wall-clock nanoseconds from starting the child JVM until it exited
+    private long launch(List<String> jvmOptions, String mainClass, String... mainArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaLauncher);
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass);
+        command.addAll(Arrays.asList(mainArgs));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        int exitCode = process.waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (exitCode != 0) {
+            throw new IOException("child JVM exited with " + exitCode + ": " + command);
+        }
+        return elapsed;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long min(long[] values) {
+        return Arrays.stream(values).min().getAsLong();
+    }
+}